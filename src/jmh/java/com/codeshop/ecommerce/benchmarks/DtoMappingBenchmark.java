@@ -0,0 +1,125 @@
+package com.codeshop.ecommerce.benchmarks;
+
+import com.codeshop.ecommerce.dto.OrderDTO;
+import com.codeshop.ecommerce.dto.ProductDTO;
+import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.entities.Category;
+import com.codeshop.ecommerce.entities.Order;
+import com.codeshop.ecommerce.entities.OrderItem;
+import com.codeshop.ecommerce.entities.OrderStatus;
+import com.codeshop.ecommerce.entities.Payment;
+import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping on the read paths: product detail, order detail with its total and the
+ * product listing page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ProductState {
+
+        private Product product;
+
+        @Setup
+        public void setUp() {
+            product = product(1L, 3);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        @Param({"1", "10", "50"})
+        private int orderItems;
+
+        private Order order;
+
+        @Setup
+        public void setUp() {
+            User client = new User(1L, "Maria Brown", "maria@gmail.com", "988888888", LocalDate.of(2001, 7, 25), "hash");
+            order = new Order(1L, Instant.now(), OrderStatus.PAID, client, null);
+            order.setPayment(new Payment(1L, Instant.now(), order));
+            for (int i = 0; i < orderItems; i++) {
+                Product item = product(i + 1L, 1);
+                order.getItems().add(new OrderItem(order, item, 1 + i % 3, item.getPrice()));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"12", "100"})
+        private int pageSize;
+
+        private Page<Product> productPage;
+        private List<Object[]> productRows;
+
+        @Setup
+        public void setUp() {
+            List<Product> content = new ArrayList<>();
+            productRows = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                Product p = product(i + 1L, 1);
+                content.add(p);
+                productRows.add(new Object[] {p.getId(), p.getName(), p.getPrice(), p.getImgUrl()});
+            }
+            productPage = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+        }
+    }
+
+    @Benchmark
+    public ProductDTO productDto(ProductState state) {
+        return new ProductDTO(state.product);
+    }
+
+    @Benchmark
+    public double orderDtoWithTotal(OrderState state) {
+        return new OrderDTO(state.order).getTotal();
+    }
+
+    @Benchmark
+    public Page<ProductMinDTO> productMinPageFromEntities(PageState state) {
+        return state.productPage.map(ProductMinDTO::new);
+    }
+
+    // What the listing queries do since they select the DTO through a constructor expression
+    @Benchmark
+    public List<ProductMinDTO> productMinPageFromRows(PageState state) {
+        List<ProductMinDTO> result = new ArrayList<>(state.productRows.size());
+        for (Object[] row : state.productRows) {
+            result.add(new ProductMinDTO((Long) row[0], (String) row[1], (Double) row[2], (String) row[3]));
+        }
+        return result;
+    }
+
+    private static Product product(Long id, int categories) {
+        Product product = new Product(id, "Product " + id, "Lorem ipsum dolor sit amet, consectetur adipiscing elit",
+                100.0 + id, "https://img.codeshop.com/products/" + id + ".jpg");
+        for (long c = 1; c <= categories; c++) {
+            product.getCategories().add(new Category(c, "Category " + c));
+        }
+        return product;
+    }
+}
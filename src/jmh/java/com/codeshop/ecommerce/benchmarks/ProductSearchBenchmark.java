@@ -0,0 +1,98 @@
+package com.codeshop.ecommerce.benchmarks;
+
+import com.codeshop.ecommerce.projections.ProductNameProjection;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.index.ProductNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory side of the product name search: the trigram index lookup that decides which ids the
+ * listing query fetches. Names are drawn from a small vocabulary so common terms match many
+ * products, like a real catalog.
+ * <p>
+ * "configured" keeps the default search.product-index.max-ids: a common term matches more ids than
+ * that, so the index gives up and production runs the LIKE query instead; ProductSearchPathBenchmark
+ * times that path. "unbounded" lifts the limit; it is the index-only cost of a term production never
+ * answers from the index, not the real cost of such a search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Dell", "Lenovo", "LG", "Xiaomi", "Asus"};
+    private static final String[] KINDS = {"Notebook", "Smart TV", "Monitor", "Headphone", "Tablet", "Console", "Camera", "Phone"};
+    private static final String[] MODELS = {"Pro", "Max", "Ultra", "Lite", "Air", "Plus", "Mini", "Gamer"};
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    // common, selective and missing terms
+    @Param({"Pro", "Sony Tablet", "Playstation"})
+    private String term;
+
+    @Param({"configured", "unbounded"})
+    private String idLimit;
+
+    private ProductNameIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ProductNameProjection> names = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " "
+                    + MODELS[random.nextInt(MODELS.length)] + " " + random.nextInt(1000);
+            names.add(projection(id, name));
+        }
+
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ProductRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("searchAllNames")) {
+                        return names;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        index = new ProductNameIndex();
+        ReflectionTestUtils.setField(index, "repository", repository);
+        if (idLimit.equals("unbounded")) {
+            ReflectionTestUtils.setField(index, "maxIds", products);
+        }
+        index.rebuild();
+    }
+
+    @Benchmark
+    public Optional<List<Long>> search() {
+        return index.search(term);
+    }
+
+    private static ProductNameProjection projection(Long id, String name) {
+        return new ProductNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
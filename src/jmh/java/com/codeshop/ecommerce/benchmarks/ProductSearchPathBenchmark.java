@@ -0,0 +1,72 @@
+package com.codeshop.ecommerce.benchmarks;
+
+import com.codeshop.ecommerce.EcommerceApplication;
+import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /products as production runs it: ProductService.findAll against embedded H2 filled by the
+ * "dataset" profile, with the configured search.product-index.max-ids. Terms the index can answer
+ * run the listing query by id; a common term or an empty name falls back to the LIKE query and its
+ * count. Each trial starts the application and generates the dataset, so setup takes a while.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductSearchPathBenchmark {
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    // all products, common, selective and missing terms
+    @Param({"", "Pro", "Sony Tablet", "Playstation"})
+    private String term;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        // arguments, not default properties, so they override the test profile's show-sql
+        // @formatter:off
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .profiles("test", "dataset")
+                .run(
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--dataset.products=" + products,
+                        "--dataset.users=1000",
+                        "--dataset.orders=1000");
+        // @formatter:on
+        service = context.getBean(ProductService.class);
+        pageable = PageRequest.of(0, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ProductMinDTO> findAll() {
+        return service.findAll(term, pageable);
+    }
+}
@@ -0,0 +1,49 @@
+package com.codeshop.ecommerce.benchmarks;
+
+import com.codeshop.ecommerce.entities.Role;
+import com.codeshop.ecommerce.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User.hasRole as called by the order ownership check, for a hit on the last role and a miss.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class UserRoleBenchmark {
+
+    @Param({"1", "2", "5"})
+    private int roles;
+
+    private User user;
+    private String lastRole;
+
+    @Setup
+    public void setUp() {
+        user = new User(1L, "Alex Green", "alex@gmail.com", "977777777", LocalDate.of(1987, 12, 13), "hash");
+        for (long i = 1; i <= roles; i++) {
+            lastRole = "ROLE_" + i;
+            user.addRole(new Role(i, lastRole));
+        }
+    }
+
+    @Benchmark
+    public boolean hasRoleHit() {
+        return user.hasRole(lastRole);
+    }
+
+    @Benchmark
+    public boolean hasRoleMiss() {
+        return user.hasRole("ROLE_ADMIN");
+    }
+}
@@ -0,0 +1,92 @@
+package com.codeshop.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and status counts per endpoint. Recording is lock-free (HdrHistogram
+ * {@link Recorder}); values are kept in microseconds with three significant digits.
+ */
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Records one call that started at startNanos; status 0 means no HTTP response (I/O error or timeout).
+     */
+    public void record(String endpoint, long startNanos, int status) {
+        long micros = Math.min(MAX_LATENCY_MICROS, Math.max(1L, (System.nanoTime() - startNanos) / 1_000));
+        recorders.computeIfAbsent(endpoint, x -> new Recorder(MAX_LATENCY_MICROS, 3)).recordValue(micros);
+        statuses.computeIfAbsent(endpoint, x -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, x -> new LongAdder()).increment();
+    }
+
+    public void dropped() {
+        dropped.increment();
+    }
+
+    // Discards everything recorded so far, e.g. at the end of the warm-up
+    public void reset() {
+        for (Recorder recorder : recorders.values()) {
+            recorder.reset();
+        }
+        statuses.clear();
+        dropped.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Writes the summary table to out and the summary plus one percentile distribution per endpoint
+     * (.hgrm, plottable with HdrHistogram's plotter) under directory.
+     */
+    public void write(String header, Path directory, PrintStream out) throws IOException {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+
+        StringBuilder summary = new StringBuilder(header).append('\n');
+        summary.append(String.format("%-26s %9s %8s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "count", "req/s",
+                "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+        histograms.forEach((endpoint, histogram) -> {
+            Map<Integer, LongAdder> counts = new TreeMap<>(statuses.getOrDefault(endpoint, Map.of()));
+            long errors = counts.entrySet().stream()
+                    .filter(e -> e.getKey() < 200 || e.getKey() >= 400)
+                    .mapToLong(e -> e.getValue().sum()).sum();
+            summary.append(String.format("%-26s %9d %8.1f %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", endpoint,
+                    histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors,
+                    millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, counts));
+        });
+        summary.append(String.format("journeys dropped at the in-flight limit: %d%n", dropped.sum()));
+
+        out.print(summary);
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("summary.txt"), summary);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                entry.getValue().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
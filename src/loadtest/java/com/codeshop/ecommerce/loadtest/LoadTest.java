@@ -0,0 +1,107 @@
+package com.codeshop.ecommerce.loadtest;
+
+import com.codeshop.ecommerce.EcommerceApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load driver: shopper journeys start at Poisson-distributed times at the configured
+ * arrival rate, whether or not earlier journeys have finished, so a slow server builds up work
+ * instead of slowing the driver down. Without loadtest.base-url the application is started in this
+ * JVM on a random port with loadtest.profiles (e.g. "test,dataset" for a large catalog) and with the
+ * rate limiter off, since a few shared test users would otherwise hit their per-user limits and the
+ * report would measure 429s instead of capacity. A server given by loadtest.base-url keeps its limits.
+ *
+ * <pre>mvn -Ploadtest verify -Dloadtest.rate=20 -Dloadtest.duration-seconds=120</pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        ConfigurableApplicationContext application = null;
+        String baseUrl = settings.baseUrl();
+        if (baseUrl.isEmpty()) {
+            application = SpringApplication.run(EcommerceApplication.class,
+                    "--server.port=0", "--spring.profiles.active=" + settings.profiles(), "--spring.jpa.show-sql=false",
+                    "--rate-limit.enabled=false");
+            int port = ((ServletWebServerApplicationContext) application).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+
+        String target = "Load test against " + baseUrl + (application != null ? " (embedded, rate limit off)" : "")
+                + ": " + settings;
+        LatencyReport report = new LatencyReport();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .build();
+            UserJourney journey = new UserJourney(client, baseUrl, report, settings);
+            AtomicInteger inFlight = new AtomicInteger();
+
+            System.out.println(target);
+            drive(settings, settings.warmup(), journey, executor, inFlight, report);
+            report.reset();
+            drive(settings, settings.duration(), journey, executor, inFlight, report);
+
+            // journeys still running get the request timeout to finish before the report is taken
+            long deadline = System.nanoTime() + settings.requestTimeout().toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            report.write(target, Path.of(settings.reportDirectory(), timestamp), System.out);
+            executor.shutdownNow();
+        }
+        finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static void drive(LoadTestSettings settings, Duration duration, UserJourney journey,
+            ExecutorService executor, AtomicInteger inFlight, LatencyReport report) {
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.arrivalsPerSecond();
+        long end = System.nanoTime() + duration.toNanos();
+        long next = System.nanoTime();
+        while (true) {
+            next += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+            if (next >= end) {
+                return;
+            }
+            LockSupport.parkNanos(next - System.nanoTime());
+
+            if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                inFlight.decrementAndGet();
+                report.dropped();
+                continue;
+            }
+            long scheduled = next;
+            executor.execute(() -> {
+                try {
+                    journey.run(scheduled);
+                }
+                finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+}
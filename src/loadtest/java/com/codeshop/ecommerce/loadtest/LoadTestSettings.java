@@ -0,0 +1,75 @@
+package com.codeshop.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test parameters, read from -Dloadtest.* system properties (the loadtest Maven profile
+ * forwards them).
+ */
+public record LoadTestSettings(
+        String baseUrl,
+        String profiles,
+        double arrivalsPerSecond,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        List<String> users,
+        String password,
+        String clientId,
+        String clientSecret,
+        double loginRatio,
+        double orderRatio,
+        Duration thinkTime,
+        Duration requestTimeout,
+        String reportDirectory) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                property("base-url", ""),
+                property("profiles", "test"),
+                Double.parseDouble(property("rate", "10")),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                Integer.parseInt(property("max-in-flight", "1000")),
+                users(property("users", "maria@gmail.com,alex@gmail.com"), property("user-ids", "")),
+                property("password", "123456"),
+                property("client-id", "myclientid"),
+                property("client-secret", "myclientsecret"),
+                Double.parseDouble(property("login-ratio", "0.05")),
+                Double.parseDouble(property("order-ratio", "0.2")),
+                Duration.ofMillis(Long.parseLong(property("think-time-ms", "100"))),
+                Duration.ofMillis(Long.parseLong(property("request-timeout-ms", "10000"))),
+                property("report-dir", "target/loadtest"));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%.1f/s warmup=%ds duration=%ds maxInFlight=%d users=%d loginRatio=%.2f "
+                        + "orderRatio=%.2f thinkTime=%dms", arrivalsPerSecond, warmup.toSeconds(), duration.toSeconds(),
+                maxInFlight, users.size(), loginRatio, orderRatio, thinkTime.toMillis());
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return (value == null || value.isBlank()) ? defaultValue : value;
+    }
+
+    // user-ids=4-1000 adds the users created by the dataset profile (user<id>@codeshop.com)
+    private static List<String> users(String emails, String idRange) {
+        List<String> result = new ArrayList<>();
+        if (!idRange.isBlank()) {
+            String[] bounds = idRange.split("-");
+            for (long id = Long.parseLong(bounds[0].trim()); id <= Long.parseLong(bounds[1].trim()); id++) {
+                result.add("user" + id + "@codeshop.com");
+            }
+        }
+        else {
+            for (String email : emails.split(",")) {
+                result.add(email.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,213 @@
+package com.codeshop.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One shopper visit: log in (or reuse the shopper's token), list categories, browse a page of
+ * products, search by name, open a product and sometimes place an order and open it. Every call is
+ * recorded under its endpoint template; the whole visit is recorded as "journey", measured from
+ * its scheduled start so queueing in the driver counts too, with the worst status any of its calls got.
+ */
+public class UserJourney {
+
+    private static final String[] SEARCH_TERMS = {"pro", "smart", "book", "gamer", "tv", "samsung", "notebook",
+            "ultra", "lord", "monitor"};
+    private static final int PAGE_SIZE = 12;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LatencyReport report;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger knownPages = new AtomicInteger(1);
+    private final String clientAuthorization;
+
+    public UserJourney(HttpClient client, String baseUrl, LatencyReport report, LoadTestSettings settings) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.report = report;
+        this.settings = settings;
+        this.clientAuthorization = "Basic " + Base64.getEncoder().encodeToString(
+                (settings.clientId() + ":" + settings.clientSecret()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void run(long scheduledNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = settings.users().get(random.nextInt(settings.users().size()));
+
+        Visit visit = new Visit();
+        String token = tokens.get(username);
+        if (token == null || random.nextDouble() < settings.loginRatio()) {
+            token = login(username, visit);
+            if (token == null) {
+                report.record("journey", scheduledNanos, visit.worstStatus);
+                return;
+            }
+            tokens.put(username, token);
+        }
+
+        call("GET /categories", get("/categories", token), visit);
+        think(random);
+
+        JsonNode page = call("GET /products", get("/products?page=" + random.nextInt(knownPages.get())
+                + "&size=" + PAGE_SIZE, token), visit);
+        List<Long> productIds = productIds(page);
+        think(random);
+
+        String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+        call("GET /products?name", get("/products?name=" + URLEncoder.encode(term, StandardCharsets.UTF_8), token), visit);
+        think(random);
+
+        if (!productIds.isEmpty()) {
+            Long productId = productIds.get(random.nextInt(productIds.size()));
+            call("GET /products/{id}", get("/products/" + productId, token), visit);
+            think(random);
+
+            if (random.nextDouble() < settings.orderRatio()) {
+                JsonNode order = call("POST /orders", post("/orders", token, orderBody(productIds, random)), visit);
+                if (order != null && order.hasNonNull("id")) {
+                    think(random);
+                    call("GET /orders/{id}", get("/orders/" + order.get("id").asLong(), token), visit);
+                }
+            }
+        }
+        report.record("journey", scheduledNanos, visit.worstStatus);
+    }
+
+    private String login(String username, Visit visit) {
+        String form = "grant_type=password&username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(settings.password(), StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/oauth2/token"))
+                .timeout(settings.requestTimeout())
+                .header("Authorization", clientAuthorization)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        JsonNode body = call("POST /oauth2/token", request, visit);
+        if (body == null || !body.hasNonNull("access_token")) {
+            visit.seen(401);
+            return null;
+        }
+        return body.get("access_token").asText();
+    }
+
+    /**
+     * Sends the request and records it; returns the parsed body of a 2xx response, otherwise null.
+     */
+    private JsonNode call(String endpoint, HttpRequest request, Visit visit) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, start, response.statusCode());
+            visit.seen(response.statusCode());
+            if (response.statusCode() / 100 != 2 || response.body().isEmpty()) {
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.record(endpoint, start, 0);
+            visit.seen(0);
+            return null;
+        }
+        catch (Exception e) {
+            report.record(endpoint, start, 0);
+            visit.seen(0);
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(settings.requestTimeout())
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(settings.requestTimeout())
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Accepts both the plain Page JSON and the PagedModel one (content + page.totalPages)
+    private List<Long> productIds(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        if (page == null) {
+            return ids;
+        }
+        JsonNode totalPages = page.has("page") ? page.get("page").get("totalPages") : page.get("totalPages");
+        if (totalPages != null && totalPages.asInt() > 0) {
+            knownPages.set(totalPages.asInt());
+        }
+        for (JsonNode product : page.path("content")) {
+            ids.add(product.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private String orderBody(List<Long> productIds, ThreadLocalRandom random) {
+        StringBuilder items = new StringBuilder();
+        int count = 1 + random.nextInt(Math.min(3, productIds.size()));
+        List<Long> chosen = new ArrayList<>(productIds);
+        for (int i = 0; i < count; i++) {
+            Long productId = chosen.remove(random.nextInt(chosen.size()));
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"productId\":").append(productId).append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return "{\"items\":[" + items + "]}";
+    }
+
+    private void think(ThreadLocalRandom random) {
+        if (settings.thinkTime().isZero()) {
+            return;
+        }
+        long millis = (long) (-Math.log(1.0 - random.nextDouble()) * settings.thinkTime().toMillis());
+        try {
+            Thread.sleep(Duration.ofMillis(millis));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Worst status of one journey: a failed call (0) over 5xx over 4xx over success; the first one wins ties
+    private static final class Visit {
+
+        private int worstStatus = 200;
+
+        private void seen(int status) {
+            if (severity(status) > severity(worstStatus)) {
+                worstStatus = status;
+            }
+        }
+
+        private static int severity(int status) {
+            return (status == 0) ? Integer.MAX_VALUE : status / 100;
+        }
+    }
+}
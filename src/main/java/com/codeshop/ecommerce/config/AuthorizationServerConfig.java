@@ -1,8 +1,16 @@
 package com.codeshop.ecommerce.config;
 
+import com.codeshop.ecommerce.config.customgrant.BoundedOAuth2AuthorizationService;
+import com.codeshop.ecommerce.config.customgrant.ClientSecretMatchCache;
 import com.codeshop.ecommerce.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.codeshop.ecommerce.config.customgrant.CustomPasswordAuthenticationProvider;
+import com.codeshop.ecommerce.config.customgrant.CustomTokenErrorResponseHandler;
 import com.codeshop.ecommerce.config.customgrant.CustomUserAuthorities;
+import com.codeshop.ecommerce.config.customgrant.PasswordCheckExecutor;
+import com.codeshop.ecommerce.config.jwk.CachingJwtDecoder;
+import com.codeshop.ecommerce.config.jwk.RsaKeyLoader;
+import com.codeshop.ecommerce.entities.User;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
@@ -14,17 +22,21 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.authentication.ClientSecretAuthenticationProvider;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
 import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
@@ -43,12 +55,15 @@ import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Configuration
 public class AuthorizationServerConfig {
 
+	private static final long CLIENT_SECRET_CACHE_SIZE = 16;
+
 	@Value("${security.client-id}")
 	private String clientId;
 
@@ -58,6 +73,36 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${security.jwt.refresh-duration}")
+	private Integer refreshTokenDurationSeconds;
+
+	@Value("${security.jwt.decoder-cache.max-size}")
+	private Long jwtDecoderCacheMaxSize;
+
+	@Value("${security.jwt.key-location}")
+	private String jwtKeyLocation;
+
+	@Value("${security.jwt.key-store-type}")
+	private String jwtKeyStoreType;
+
+	@Value("${security.jwt.key-store-password}")
+	private String jwtKeyStorePassword;
+
+	@Value("${security.jwt.signing-key-id}")
+	private String jwtSigningKeyId;
+
+	@Value("${security.authorization.max-size}")
+	private Long authorizationMaxSize;
+
+	@Value("${security.password-check.threads}")
+	private Integer passwordCheckThreads;
+
+	@Value("${security.password-check.queue-size}")
+	private Integer passwordCheckQueueSize;
+
+	@Value("${security.password-check.timeout-ms}")
+	private Long passwordCheckTimeoutMillis;
+
 	@Autowired
 	private UserDetailsService userDetailsService;
 
@@ -68,9 +113,16 @@ public class AuthorizationServerConfig {
 
 		// @formatter:off
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
+				.clientAuthentication(clientAuthentication -> clientAuthentication
+						.authenticationProviders(providers -> providers.forEach(provider -> {
+							if (provider instanceof ClientSecretAuthenticationProvider clientSecretProvider) {
+								clientSecretProvider.setPasswordEncoder(clientSecretEncoder());
+							}
+						})))
 				.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 						.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-						.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder())));
+						.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordCheckExecutor()))
+						.errorResponseHandler(new CustomTokenErrorResponseHandler()));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
@@ -79,8 +131,8 @@ public class AuthorizationServerConfig {
 	}
 
 	@Bean
-	OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+	BoundedOAuth2AuthorizationService authorizationService() {
+		return new BoundedOAuth2AuthorizationService(authorizationMaxSize, Duration.ofSeconds(jwtDurationSeconds));
 	}
 
 	@Bean
@@ -93,6 +145,17 @@ public class AuthorizationServerConfig {
 		return new BCryptPasswordEncoder();
 	}
 
+	// Only client secrets are cached; user passwords keep going through the bounded PasswordCheckExecutor
+	private PasswordEncoder clientSecretEncoder() {
+		return new ClientSecretMatchCache(passwordEncoder(), CLIENT_SECRET_CACHE_SIZE);
+	}
+
+	@Bean
+	PasswordCheckExecutor passwordCheckExecutor() {
+		return new PasswordCheckExecutor(passwordEncoder(), passwordCheckThreads, passwordCheckQueueSize,
+				Duration.ofMillis(passwordCheckTimeoutMillis));
+	}
+
 	@Bean
 	RegisteredClientRepository registeredClientRepository() {
 		// @formatter:off
@@ -103,6 +166,7 @@ public class AuthorizationServerConfig {
 				.scope("read")
 				.scope("write")
 				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
 				.tokenSettings(tokenSettings())
 				.clientSettings(clientSettings())
 				.build();
@@ -117,6 +181,8 @@ public class AuthorizationServerConfig {
 		return TokenSettings.builder()
 				.accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
 				.accessTokenTimeToLive(Duration.ofSeconds(jwtDurationSeconds))
+				.refreshTokenTimeToLive(Duration.ofSeconds(refreshTokenDurationSeconds))
+				.reuseRefreshTokens(false)
 				.build();
 		// @formatter:on
 	}
@@ -137,37 +203,89 @@ public class AuthorizationServerConfig {
 		JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
 		jwtGenerator.setJwtCustomizer(tokenCustomizer());
 		OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
-		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator);
+		OAuth2RefreshTokenGenerator refreshTokenGenerator = new OAuth2RefreshTokenGenerator();
+		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator, refreshTokenGenerator);
 	}
 
 	@Bean
 	OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
+		String signingKeyId = signingKeyId();
 		return context -> {
+			context.getJwsHeader().keyId(signingKeyId);
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
 			if (context.getTokenType().getValue().equals("access_token")) {
+				if (AuthorizationGrantType.REFRESH_TOKEN.equals(context.getAuthorizationGrantType())) {
+					user = currentAuthorities(user);
+				}
+				List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
 				// @formatter:off
 				context.getClaims()
 						.claim("authorities", authorities)
 						.claim("username", user.getUsername());
 				// @formatter:on
+				if (user.getUserId() != null) {
+					context.getClaims().claim("user_id", user.getUserId());
+				}
+				if (user.getName() != null) {
+					context.getClaims().claim("name", user.getName());
+				}
 			}
 		};
 	}
 
+	// The details on the stored principal were captured at login; a refresh re-reads the user so a
+	// deleted user or a removed role stops being honoured at the next refresh
+	private CustomUserAuthorities currentAuthorities(CustomUserAuthorities user) {
+		UserDetails current;
+		try {
+			current = userDetailsService.loadUserByUsername(user.getUsername());
+		} catch (UsernameNotFoundException e) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT));
+		}
+		if (!current.isEnabled() || !current.isAccountNonLocked()) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.INVALID_GRANT));
+		}
+		String name = (current instanceof User) ? ((User) current).getName() : user.getName();
+		return new CustomUserAuthorities(user.getUsername(), user.getUserId(), name, current.getAuthorities());
+	}
+
 	@Bean
-	JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+	CachingJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+		JwtDecoder jwtDecoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+		return new CachingJwtDecoder(jwtDecoder, jwtDecoderCacheMaxSize, Duration.ofSeconds(jwtDurationSeconds));
 	}
 
 	@Bean
 	JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
+		JWKSet jwkSet = jwkSet();
 		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
 	}
 
+	// Every loaded key is published and accepted; only the signing key signs new tokens
+	@Bean
+	JWKSet jwkSet() {
+		if (jwtKeyLocation.isBlank()) {
+			return new JWKSet(generateRsa());
+		}
+		List<JWK> keys = new ArrayList<>(RsaKeyLoader.load(jwtKeyLocation, jwtKeyStoreType, jwtKeyStorePassword));
+		return new JWKSet(keys);
+	}
+
+	private String signingKeyId() {
+		List<JWK> keys = jwkSet().getKeys();
+		if (!jwtSigningKeyId.isBlank()) {
+			if (keys.stream().noneMatch(x -> jwtSigningKeyId.equals(x.getKeyID()))) {
+				throw new IllegalStateException("Signing key not found: " + jwtSigningKeyId);
+			}
+			return jwtSigningKeyId;
+		}
+		if (keys.size() > 1) {
+			throw new IllegalStateException("security.jwt.signing-key-id is required when more than one key is loaded");
+		}
+		return keys.get(0).getKeyID();
+	}
+
 	private static RSAKey generateRsa() {
 		KeyPair keyPair = generateRsaKey();
 		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
@@ -0,0 +1,63 @@
+package com.codeshop.ecommerce.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	@Value("${cache.products.max-size}")
+	private Long productsMaxSize;
+
+	@Value("${cache.products.ttl-seconds}")
+	private Long productsTtlSeconds;
+
+	@Value("${cache.product-json.max-size}")
+	private Long productJsonMaxSize;
+
+	@Value("${cache.product-json.ttl-seconds}")
+	private Long productJsonTtlSeconds;
+
+	@Value("${cache.user-details.max-size}")
+	private Long userDetailsMaxSize;
+
+	@Value("${cache.user-details.ttl-seconds}")
+	private Long userDetailsTtlSeconds;
+
+	@Bean
+	CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+		// @formatter:off
+		cacheManager.registerCustomCache("products", Caffeine.newBuilder()
+				.maximumSize(productsMaxSize)
+				.expireAfterWrite(Duration.ofSeconds(productsTtlSeconds))
+				.recordStats()
+				.build());
+
+		cacheManager.registerCustomCache("productJson", Caffeine.newBuilder()
+				.maximumSize(productJsonMaxSize)
+				.expireAfterWrite(Duration.ofSeconds(productJsonTtlSeconds))
+				.recordStats()
+				.build());
+
+		cacheManager.registerCustomCache("userDetails", Caffeine.newBuilder()
+				.maximumSize(userDetailsMaxSize)
+				.expireAfterWrite(Duration.ofSeconds(userDetailsTtlSeconds))
+				.recordStats()
+				.build());
+		// @formatter:on
+
+		// puts and evictions are applied only after the surrounding transaction commits
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
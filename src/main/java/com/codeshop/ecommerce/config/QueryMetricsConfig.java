@@ -0,0 +1,50 @@
+package com.codeshop.ecommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.codeshop.ecommerce.config.querymetrics.QueryMetricsDataSourcePostProcessor;
+import com.codeshop.ecommerce.config.querymetrics.QueryMetricsListener;
+import com.codeshop.ecommerce.config.querymetrics.QueryMetricsProperties;
+import com.codeshop.ecommerce.config.querymetrics.StatementBudgetFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-statement timing, slow query logging and per-request statement counts, measured at the
+ * JDBC level so they also cover queries Hibernate issues on its own (lazy loads, flushes).
+ */
+@Configuration
+@ConditionalOnProperty(name = "query-metrics.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(QueryMetricsProperties.class)
+public class QueryMetricsConfig {
+
+	// Static so the post processor does not force this configuration to be created early
+	@Bean
+	static QueryMetricsDataSourcePostProcessor queryMetricsDataSourcePostProcessor(
+			ObjectProvider<QueryMetricsListener> listener) {
+		return new QueryMetricsDataSourcePostProcessor(listener);
+	}
+
+	@Bean
+	QueryMetricsListener queryMetricsListener(MeterRegistry registry, QueryMetricsProperties properties) {
+		return new QueryMetricsListener(registry, Duration.ofMillis(properties.getSlowThresholdMs()));
+	}
+
+	// Ahead of the security chain, so statements run while authenticating are counted too
+	@Bean
+	FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilterRegistration(MeterRegistry registry,
+			QueryMetricsProperties properties) {
+		FilterRegistrationBean<StatementBudgetFilter> bean = new FilterRegistrationBean<>(
+				new StatementBudgetFilter(registry, properties.getStatementBudget()));
+		bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+		return bean;
+	}
+}
@@ -1,8 +1,14 @@
 package com.codeshop.ecommerce.config;
 
+import com.codeshop.ecommerce.config.ratelimit.RateLimitFilter;
+import com.codeshop.ecommerce.config.ratelimit.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -14,6 +20,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -25,6 +32,7 @@ import java.util.Arrays;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class ResourceServerConfig {
 
 	@Value("${cors.origins}")
@@ -41,14 +49,33 @@ public class ResourceServerConfig {
 
 	@Bean
 	@Order(3)
-	SecurityFilterChain rsSecurityFilterChain(HttpSecurity http) throws Exception {
+	SecurityFilterChain rsSecurityFilterChain(HttpSecurity http, RateLimitFilter rateLimitFilter) throws Exception {
 		http.csrf(csrf -> csrf.disable());
-		http.authorizeHttpRequests((authorize) -> authorize.anyRequest().permitAll());
+		// @formatter:off
+		http.authorizeHttpRequests((authorize) -> authorize
+				.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+				.requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
+				.anyRequest().permitAll());
+		// @formatter:on
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
+		http.addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class);
 		http.cors(cors -> cors.configurationSource(corsConfigurationSource()));
 		return http.build();
 	}
 
+	@Bean
+	RateLimitFilter rateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+		return new RateLimitFilter(properties, objectMapper);
+	}
+
+	// Runs inside the security chain only, after the bearer token is authenticated
+	@Bean
+	FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+		FilterRegistrationBean<RateLimitFilter> bean = new FilterRegistrationBean<>(rateLimitFilter);
+		bean.setEnabled(false);
+		return bean;
+	}
+
 	@Bean
 	JwtAuthenticationConverter jwtAuthenticationConverter() {
 		JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
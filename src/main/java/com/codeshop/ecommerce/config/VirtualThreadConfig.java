@@ -0,0 +1,26 @@
+package com.codeshop.ecommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Extra wiring for spring.threads.virtual.enabled=true (the "virtual" profile). Spring Boot already
+ * moves Tomcat, @Async, the application task executor and scheduling onto virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+	@Value("${threads.virtual.pinned-threshold-ms:20}")
+	private long pinnedThresholdMs;
+
+	@Bean
+	VirtualThreadPinningMonitor virtualThreadPinningMonitor() {
+		return new VirtualThreadPinningMonitor(Duration.ofMillis(pinnedThresholdMs));
+	}
+}
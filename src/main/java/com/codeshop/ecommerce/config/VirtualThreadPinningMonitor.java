@@ -0,0 +1,75 @@
+package com.codeshop.ecommerce.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams the JFR jdk.VirtualThreadPinned event in process, so a virtual thread that blocks while
+ * pinned to its carrier (inside a synchronized block or a native frame) for longer than the
+ * threshold is counted and logged with the top of its stack.
+ */
+public class VirtualThreadPinningMonitor implements MeterBinder, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int LOGGED_FRAMES = 8;
+
+	private final RecordingStream stream;
+	private final AtomicLong pinned = new AtomicLong();
+
+	public VirtualThreadPinningMonitor(Duration threshold) {
+		Assert.notNull(threshold, "threshold cannot be null");
+		this.stream = new RecordingStream();
+		this.stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		this.stream.onEvent(PINNED_EVENT, this::onPinned);
+		this.stream.startAsync();
+	}
+
+	public long getPinnedCount() {
+		return this.pinned.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("jvm.threads.virtual.pinned", this.pinned, AtomicLong::get)
+				.description("Virtual threads that blocked while pinned to their carrier")
+				.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.stream.close();
+	}
+
+	private void onPinned(RecordedEvent event) {
+		this.pinned.incrementAndGet();
+		logger.warn("Virtual thread pinned for {} ms at{}", event.getDuration().toMillis(), topFrames(event));
+	}
+
+	private static String topFrames(RecordedEvent event) {
+		if (event.getStackTrace() == null) {
+			return " (no stack trace)";
+		}
+		List<RecordedFrame> frames = event.getStackTrace().getFrames();
+		return frames.stream()
+				.limit(LOGGED_FRAMES)
+				.map(frame -> "\n\t" + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+						+ ":" + frame.getLineNumber())
+				.collect(Collectors.joining());
+	}
+}
@@ -0,0 +1,204 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-memory authorization store with a hard capacity. Each authorization expires together with
+ * its longest-lived token (or after the default time to live when no token has an expiry), and
+ * the least used ones are evicted once the capacity is reached. Eviction runs on Caffeine's
+ * maintenance executor, so saves never wait for a cleanup pass.
+ * <p>
+ * The token index is only touched inside the cache's per-entry atomic operations: saves and
+ * removals go through {@code compute}, and evictions through the synchronous eviction listener.
+ * An index entry can therefore never outlive its authorization, even when a save is evicted or
+ * expires before the call returns.
+ */
+public class BoundedOAuth2AuthorizationService implements OAuth2AuthorizationService, MeterBinder {
+
+	private static final String CACHE_NAME = "oauth2Authorizations";
+
+	private static final List<Class<? extends OAuth2Token>> TOKEN_CLASSES = List.of(OAuth2AuthorizationCode.class,
+			OAuth2AccessToken.class, OAuth2RefreshToken.class, OidcIdToken.class);
+
+	private final Cache<String, OAuth2Authorization> authorizations;
+
+	// token value -> authorization id, kept in step with the cache by the eviction listener
+	private final Map<String, String> tokenIndex = new ConcurrentHashMap<>();
+
+	public BoundedOAuth2AuthorizationService(long maximumSize, Duration defaultTimeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than zero");
+		Assert.notNull(defaultTimeToLive, "defaultTimeToLive cannot be null");
+
+		// @formatter:off
+		this.authorizations = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new Expiry<String, OAuth2Authorization>() {
+					@Override
+					public long expireAfterCreate(String id, OAuth2Authorization authorization, long currentTime) {
+						return timeToLive(authorization, defaultTimeToLive).toNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(String id, OAuth2Authorization authorization, long currentTime, long currentDuration) {
+						return timeToLive(authorization, defaultTimeToLive).toNanos();
+					}
+
+					@Override
+					public long expireAfterRead(String id, OAuth2Authorization authorization, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.evictionListener((String id, OAuth2Authorization authorization, RemovalCause cause) -> {
+					if (authorization != null) {
+						unindex(authorization, List.of());
+					}
+				})
+				.recordStats()
+				.build();
+		// @formatter:on
+	}
+
+	@Override
+	public void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		List<String> tokens = tokenValues(authorization);
+		this.authorizations.asMap().compute(authorization.getId(), (id, previous) -> {
+			if (previous != null) {
+				unindex(previous, tokens);
+			}
+			for (String token : tokens) {
+				this.tokenIndex.put(token, id);
+			}
+			return authorization;
+		});
+	}
+
+	@Override
+	public void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		this.authorizations.asMap().computeIfPresent(authorization.getId(), (id, current) -> {
+			unindex(current, List.of());
+			return null;
+		});
+	}
+
+	@Override
+	public OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return this.authorizations.getIfPresent(id);
+	}
+
+	@Override
+	public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		String id = this.tokenIndex.get(token);
+		if (id == null) {
+			return null;
+		}
+		OAuth2Authorization authorization = this.authorizations.getIfPresent(id);
+		if (authorization == null) {
+			// expired but not yet evicted; drop the index entry under the key's lock so a concurrent save wins
+			this.authorizations.asMap().compute(id, (key, current) -> {
+				if (current == null) {
+					this.tokenIndex.remove(token, key);
+				}
+				return current;
+			});
+			return null;
+		}
+		return hasToken(authorization, token, tokenType) ? authorization : null;
+	}
+
+	public long size() {
+		return this.authorizations.estimatedSize();
+	}
+
+	long indexSize() {
+		return this.tokenIndex.size();
+	}
+
+	// Forces pending expirations and evictions, which otherwise run amortized on later operations
+	public void cleanUp() {
+		this.authorizations.cleanUp();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.authorizations, CACHE_NAME);
+	}
+
+	private void unindex(OAuth2Authorization authorization, List<String> retained) {
+		for (String token : tokenValues(authorization)) {
+			if (!retained.contains(token)) {
+				this.tokenIndex.remove(token, authorization.getId());
+			}
+		}
+	}
+
+	private static List<String> tokenValues(OAuth2Authorization authorization) {
+		Stream<String> state = Stream.of((String) authorization.getAttribute(OAuth2ParameterNames.STATE));
+		Stream<String> tokens = TOKEN_CLASSES.stream().map(type -> tokenValue(authorization.getToken(type)));
+		return Stream.concat(state, tokens).filter(Objects::nonNull).toList();
+	}
+
+	private static String tokenValue(OAuth2Authorization.Token<? extends OAuth2Token> token) {
+		return (token == null) ? null : token.getToken().getTokenValue();
+	}
+
+	private static boolean hasToken(OAuth2Authorization authorization, String token, OAuth2TokenType tokenType) {
+		if (tokenType == null) {
+			return tokenValues(authorization).contains(token);
+		}
+		return switch (tokenType.getValue()) {
+			case OAuth2ParameterNames.STATE -> token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+			case OAuth2ParameterNames.CODE -> token.equals(tokenValue(authorization.getToken(OAuth2AuthorizationCode.class)));
+			case OAuth2ParameterNames.ACCESS_TOKEN -> token.equals(tokenValue(authorization.getToken(OAuth2AccessToken.class)));
+			case OAuth2ParameterNames.REFRESH_TOKEN -> token.equals(tokenValue(authorization.getToken(OAuth2RefreshToken.class)));
+			case OidcParameterNames.ID_TOKEN -> token.equals(tokenValue(authorization.getToken(OidcIdToken.class)));
+			default -> false;
+		};
+	}
+
+	private static Duration timeToLive(OAuth2Authorization authorization, Duration defaultTimeToLive) {
+		Instant expiresAt = null;
+		for (Class<? extends OAuth2Token> type : TOKEN_CLASSES) {
+			OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(type);
+			if (token != null && token.getToken().getExpiresAt() != null
+					&& (expiresAt == null || token.getToken().getExpiresAt().isAfter(expiresAt))) {
+				expiresAt = token.getToken().getExpiresAt();
+			}
+		}
+		if (expiresAt == null) {
+			return defaultTimeToLive;
+		}
+		Duration remaining = Duration.between(Instant.now(), expiresAt);
+		return remaining.isNegative() ? Duration.ZERO : remaining;
+	}
+}
@@ -0,0 +1,67 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Client secret encoder that remembers successful matches. Every /oauth2/token request carries the
+ * client secret, and checking it with BCrypt on the request thread would run before login admission
+ * control, so a login storm could still spend unbounded CPU on hashing. After the first match only a
+ * SHA-256 digest of the secret is kept, keyed by the stored hash; wrong secrets always go to the
+ * delegate.
+ */
+public class ClientSecretMatchCache implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final Cache<String, byte[]> matches;
+
+	public ClientSecretMatchCache(PasswordEncoder delegate, long maximumSize) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than zero");
+		this.delegate = delegate;
+		this.matches = Caffeine.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return this.delegate.encode(rawPassword);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		if (rawPassword == null || encodedPassword == null) {
+			return this.delegate.matches(rawPassword, encodedPassword);
+		}
+		byte[] digest = sha256(rawPassword);
+		byte[] known = this.matches.getIfPresent(encodedPassword);
+		if (known != null && MessageDigest.isEqual(known, digest)) {
+			return true;
+		}
+		if (!this.delegate.matches(rawPassword, encodedPassword)) {
+			return false;
+		}
+		this.matches.put(encodedPassword, digest);
+		return true;
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return this.delegate.upgradeEncoding(encodedPassword);
+	}
+
+	private static byte[] sha256(CharSequence value) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(value.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -7,10 +7,14 @@ import org.springframework.security.core.GrantedAuthority;
 public class CustomUserAuthorities {
 
 	private String username;
+	private Long userId;
+	private String name;
 	private Collection<? extends GrantedAuthority> authorities;
 
-	public CustomUserAuthorities(String username, Collection<? extends GrantedAuthority> authorities) {
+	public CustomUserAuthorities(String username, Long userId, String name, Collection<? extends GrantedAuthority> authorities) {
 		this.username = username;
+		this.userId = userId;
+		this.name = name;
 		this.authorities = authorities;
 	}
 
@@ -18,6 +22,14 @@ public class CustomUserAuthorities {
 		return username;
 	}
 
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		return authorities;
 	}
@@ -0,0 +1,125 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Runs login password checks on a small fixed pool with a bounded queue, so a burst of logins
+ * can only keep that many BCrypt hashes busy at once. Checks that do not fit in the queue, or
+ * that wait longer than the timeout, fail fast with {@link RejectedExecutionException}.
+ */
+public class PasswordCheckExecutor implements MeterBinder, DisposableBean {
+
+	private final PasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor executor;
+	private final Duration timeout;
+
+	private volatile Timer hashTimer;
+	private volatile Counter rejectedCounter;
+
+	public PasswordCheckExecutor(PasswordEncoder passwordEncoder, int threads, int queueSize, Duration timeout) {
+		Assert.notNull(passwordEncoder, "passwordEncoder cannot be null");
+		Assert.isTrue(threads > 0, "threads must be greater than zero");
+		Assert.isTrue(queueSize > 0, "queueSize must be greater than zero");
+		Assert.notNull(timeout, "timeout cannot be null");
+		this.passwordEncoder = passwordEncoder;
+		this.timeout = timeout;
+
+		AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					Thread thread = new Thread(runnable, "password-check-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		Future<Boolean> result;
+		try {
+			result = this.executor.submit(() -> timedMatches(rawPassword, encodedPassword));
+		}
+		catch (RejectedExecutionException e) {
+			throw rejected(e);
+		}
+
+		try {
+			return result.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			result.cancel(true);
+			throw rejected(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.cancel(true);
+			throw rejected(e);
+		}
+		catch (ExecutionException e) {
+			throw (e.getCause() instanceof RuntimeException runtime) ? runtime : new IllegalStateException(e.getCause());
+		}
+	}
+
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("login.password.queue", this.executor, x -> x.getQueue().size())
+				.description("Password checks waiting for a thread")
+				.register(registry);
+		Gauge.builder("login.password.active", this.executor, ThreadPoolExecutor::getActiveCount)
+				.description("Password checks being hashed")
+				.register(registry);
+		this.hashTimer = Timer.builder("login.password.hash")
+				.description("Time spent hashing a login password")
+				.register(registry);
+		this.rejectedCounter = Counter.builder("login.password.rejected")
+				.description("Logins rejected because the password check pool was saturated")
+				.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	private boolean timedMatches(CharSequence rawPassword, String encodedPassword) {
+		long start = System.nanoTime();
+		try {
+			return this.passwordEncoder.matches(rawPassword, encodedPassword);
+		}
+		finally {
+			Timer timer = this.hashTimer;
+			if (timer != null) {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	private RejectedExecutionException rejected(Exception cause) {
+		Counter counter = this.rejectedCounter;
+		if (counter != null) {
+			counter.increment();
+		}
+		return new RejectedExecutionException("Password check pool saturated", cause);
+	}
+}
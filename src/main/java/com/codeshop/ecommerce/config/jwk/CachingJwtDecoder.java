@@ -0,0 +1,98 @@
+package com.codeshop.ecommerce.config.jwk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Remembers tokens the delegate already verified, keyed by the SHA-256 of the token, so a token
+ * reused across requests pays the RSA signature check once. Entries expire with the token
+ * itself (capped by the maximum time to live); tokens that fail validation are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+	private static final String CACHE_NAME = "jwtDecoder";
+
+	private final JwtDecoder delegate;
+	private final Cache<String, Jwt> cache;
+
+	public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumTimeToLive) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than zero");
+		Assert.notNull(maximumTimeToLive, "maximumTimeToLive cannot be null");
+		this.delegate = delegate;
+
+		// @formatter:off
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new Expiry<String, Jwt>() {
+					@Override
+					public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+						return timeToLive(jwt, maximumTimeToLive).toNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return timeToLive(jwt, maximumTimeToLive).toNanos();
+					}
+
+					@Override
+					public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.recordStats()
+				.build();
+		// @formatter:on
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		if (token == null) {
+			return this.delegate.decode(null);
+		}
+		return this.cache.get(hash(token), key -> this.delegate.decode(token));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.cache, CACHE_NAME);
+	}
+
+	private static Duration timeToLive(Jwt jwt, Duration maximumTimeToLive) {
+		Instant expiresAt = jwt.getExpiresAt();
+		if (expiresAt == null) {
+			return maximumTimeToLive;
+		}
+		Duration remaining = Duration.between(Instant.now(), expiresAt);
+		if (remaining.isNegative()) {
+			return Duration.ZERO;
+		}
+		return (remaining.compareTo(maximumTimeToLive) > 0) ? maximumTimeToLive : remaining;
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
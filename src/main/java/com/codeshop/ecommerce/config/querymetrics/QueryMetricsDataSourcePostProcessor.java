@@ -0,0 +1,32 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps every DataSource bean so its statements go through the {@link QueryMetricsListener}.
+ * The proxy unwraps to the pool, so the Hikari metrics and health check keep working.
+ */
+public class QueryMetricsDataSourcePostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<QueryMetricsListener> listener;
+
+	public QueryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetricsListener> listener) {
+		this.listener = listener;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+			return ProxyDataSourceBuilder.create(beanName, dataSource)
+					.listener(this.listener.getObject())
+					.build();
+		}
+		return bean;
+	}
+}
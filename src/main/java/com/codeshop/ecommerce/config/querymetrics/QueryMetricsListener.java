@@ -0,0 +1,92 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Times every JDBC statement execution (a batch counts once) in db.query, tagged by statement
+ * type and outcome, and logs the ones slower than the threshold. Each execution is also added to
+ * the current request's {@link RequestStatements}.
+ */
+public class QueryMetricsListener implements QueryExecutionListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryMetricsListener.class);
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final String START_NANOS = QueryMetricsListener.class.getName() + ".start";
+
+	private final long slowThresholdNanos;
+	private final Map<QueryType, Timer> succeeded = new EnumMap<>(QueryType.class);
+	private final Map<QueryType, Timer> failed = new EnumMap<>(QueryType.class);
+	private final Map<QueryType, Counter> slow = new EnumMap<>(QueryType.class);
+
+	public QueryMetricsListener(MeterRegistry registry, Duration slowThreshold) {
+		Assert.notNull(registry, "registry cannot be null");
+		Assert.notNull(slowThreshold, "slowThreshold cannot be null");
+		this.slowThresholdNanos = slowThreshold.toNanos();
+		for (QueryType type : QueryType.values()) {
+			String tag = type.name().toLowerCase(Locale.ROOT);
+			this.succeeded.put(type, timer(registry, tag, "success"));
+			this.failed.put(type, timer(registry, tag, "error"));
+			this.slow.put(type, Counter.builder("db.query.slow")
+					.description("JDBC statements slower than the slow query threshold")
+					.tag("type", tag)
+					.register(registry));
+		}
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		execInfo.addCustomValue(START_NANOS, System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+		long nanos = (start == null) ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+				: System.nanoTime() - start;
+		String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+		QueryType type = QueryUtils.getQueryType(sql);
+
+		(execInfo.isSuccess() ? this.succeeded : this.failed).get(type).record(nanos, TimeUnit.NANOSECONDS);
+		RequestStatements.record(nanos);
+
+		if (nanos >= this.slowThresholdNanos) {
+			this.slow.get(type).increment();
+			logger.warn("Slow query took {} ms{}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+					execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "", singleLine(sql));
+		}
+	}
+
+	// Formatted SQL (hibernate.format_sql) would otherwise spread one entry over many log lines
+	private static String singleLine(String sql) {
+		return WHITESPACE.matcher(sql).replaceAll(" ").trim();
+	}
+
+	private static Timer timer(MeterRegistry registry, String type, String outcome) {
+		return Timer.builder("db.query")
+				.description("Execution time of JDBC statements")
+				.tag("type", type)
+				.tag("outcome", outcome)
+				.register(registry);
+	}
+}
@@ -0,0 +1,39 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JDBC statement instrumentation. Statements slower than the threshold are logged, and requests
+ * executing more statements than the budget are logged as likely N+1 selects.
+ */
+@ConfigurationProperties("query-metrics")
+public class QueryMetricsProperties {
+
+	private boolean enabled = true;
+	private long slowThresholdMs = 200;
+	private int statementBudget = 20;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getSlowThresholdMs() {
+		return slowThresholdMs;
+	}
+
+	public void setSlowThresholdMs(long slowThresholdMs) {
+		this.slowThresholdMs = slowThresholdMs;
+	}
+
+	public int getStatementBudget() {
+		return statementBudget;
+	}
+
+	public void setStatementBudget(int statementBudget) {
+		this.statementBudget = statementBudget;
+	}
+}
@@ -0,0 +1,42 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+/**
+ * Statements executed by the request bound to the current thread. Statements run outside a
+ * request (startup, the dataset generator) are timed but not counted.
+ */
+final class RequestStatements {
+
+	private static final ThreadLocal<RequestStatements> current = new ThreadLocal<>();
+
+	private int count;
+	private long nanos;
+
+	private RequestStatements() {
+	}
+
+	static RequestStatements begin() {
+		RequestStatements statements = new RequestStatements();
+		current.set(statements);
+		return statements;
+	}
+
+	static void end() {
+		current.remove();
+	}
+
+	static void record(long nanos) {
+		RequestStatements statements = current.get();
+		if (statements != null) {
+			statements.count++;
+			statements.nanos += nanos;
+		}
+	}
+
+	int getCount() {
+		return this.count;
+	}
+
+	long getNanos() {
+		return this.nanos;
+	}
+}
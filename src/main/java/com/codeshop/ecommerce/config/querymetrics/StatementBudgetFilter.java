@@ -0,0 +1,79 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the statements each request executes into db.request.statements, tagged by method and
+ * route like http.server.requests. A request over the statement budget is counted in
+ * db.request.budget.exceeded and logged, as it is most likely loading an association per row.
+ */
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+	private static final String UNKNOWN_URI = "UNKNOWN";
+
+	private final MeterRegistry registry;
+	private final int statementBudget;
+
+	public StatementBudgetFilter(MeterRegistry registry, int statementBudget) {
+		Assert.notNull(registry, "registry cannot be null");
+		Assert.isTrue(statementBudget >= 0, "statementBudget cannot be negative");
+		this.registry = registry;
+		this.statementBudget = statementBudget;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		RequestStatements statements = RequestStatements.begin();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			RequestStatements.end();
+			record(request, statements);
+		}
+	}
+
+	private void record(HttpServletRequest request, RequestStatements statements) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = (pattern == null) ? UNKNOWN_URI : pattern.toString();
+
+		DistributionSummary.builder("db.request.statements")
+				.description("JDBC statements executed per request")
+				.baseUnit("statements")
+				.tag("method", request.getMethod())
+				.tag("uri", uri)
+				.register(this.registry)
+				.record(statements.getCount());
+
+		if (statements.getCount() > this.statementBudget) {
+			Counter.builder("db.request.budget.exceeded")
+					.description("Requests that executed more statements than the budget")
+					.tag("method", request.getMethod())
+					.tag("uri", uri)
+					.register(this.registry)
+					.increment();
+			logger.warn("{} {} executed {} statements in {} ms, over the budget of {} (possible N+1 select)",
+					request.getMethod(), request.getRequestURI(), statements.getCount(),
+					TimeUnit.NANOSECONDS.toMillis(statements.getNanos()), this.statementBudget);
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.codeshop.ecommerce.config.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.codeshop.ecommerce.config.ratelimit.RateLimitProperties.KeyType;
+import com.codeshop.ecommerce.dto.CustomError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles the configured routes with one {@link TokenBucket} per route and caller. Must run
+ * after bearer token authentication so callers can be told apart by JWT. Requests over the limit
+ * get 429 with Retry-After; requests no route matches only pay the matcher checks.
+ * <p>
+ * USER and CLIENT routes leave anonymous requests alone. Behind a load balancer every anonymous
+ * caller shares the proxy's address, so falling back to it would make all shoppers share one
+ * bucket. Anonymous traffic is only throttled by routes explicitly keyed by IP, which need
+ * server.forward-headers-strategy set when the app runs behind a proxy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+	private static final String CACHE_NAME = "rateLimitBuckets";
+
+	private final List<LimitedRoute> routes = new ArrayList<>();
+	private final Cache<String, TokenBucket> buckets;
+	private final ObjectMapper objectMapper;
+
+	public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+		Assert.notNull(properties, "properties cannot be null");
+		Assert.notNull(objectMapper, "objectMapper cannot be null");
+		this.objectMapper = objectMapper;
+		if (properties.isEnabled()) {
+			for (RateLimitProperties.Route route : properties.getRoutes()) {
+				this.routes.add(new LimitedRoute(this.routes.size(), route));
+			}
+		}
+
+		// @formatter:off
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(properties.getMaxBuckets())
+				.expireAfterAccess(Duration.ofSeconds(properties.getIdleSeconds()))
+				.recordStats()
+				.build();
+		// @formatter:on
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		LimitedRoute route = match(request);
+		if (route == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String caller = callerKey(route.key, request);
+		if (caller == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long now = System.nanoTime();
+		String key = route.index + ":" + caller;
+		long waitNanos = this.buckets.get(key, k -> route.newBucket(now)).tryAcquire(now);
+		if (waitNanos == 0L) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		route.rejected.incrementAndGet();
+		reject(request, response, waitNanos);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.buckets, CACHE_NAME);
+		for (LimitedRoute route : this.routes) {
+			FunctionCounter.builder("rate.limit.rejected", route.rejected, AtomicLong::get)
+					.description("Requests refused with 429 by the rate limiter")
+					.tag("route", route.name)
+					.register(registry);
+		}
+	}
+
+	private LimitedRoute match(HttpServletRequest request) {
+		for (LimitedRoute route : this.routes) {
+			if (route.matcher.matches(request)) {
+				return route;
+			}
+		}
+		return null;
+	}
+
+	// null when the route is keyed by user or client and the request carries no usable JWT
+	private static String callerKey(KeyType type, HttpServletRequest request) {
+		if (type == KeyType.IP) {
+			return "ip:" + request.getRemoteAddr();
+		}
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+			Jwt jwt = jwtAuthentication.getToken();
+			String value = (type == KeyType.USER) ? jwt.getClaimAsString("username") : clientId(jwt);
+			if (value != null) {
+				return (type == KeyType.USER) ? "u:" + value : "c:" + value;
+			}
+		}
+		return null;
+	}
+
+	private static String clientId(Jwt jwt) {
+		List<String> audience = jwt.getAudience();
+		return (audience == null || audience.isEmpty()) ? jwt.getSubject() : audience.get(0);
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+		HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+		long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		CustomError error = new CustomError(Instant.now(), status.value(),
+				"Muitas requisições, tente novamente mais tarde", request.getRequestURI());
+		this.objectMapper.writeValue(response.getOutputStream(), error);
+	}
+
+	private static final class LimitedRoute {
+
+		private final int index;
+		private final String name;
+		private final RequestMatcher matcher;
+		private final KeyType key;
+		private final int capacity;
+		private final double refillPerSecond;
+		private final AtomicLong rejected = new AtomicLong();
+
+		private LimitedRoute(int index, RateLimitProperties.Route route) {
+			Assert.hasText(route.getPath(), "rate-limit route path cannot be empty");
+			Assert.notNull(route.getKey(), "rate-limit route key cannot be null");
+			this.index = index;
+			this.name = (route.getMethod() == null) ? route.getPath() : route.getMethod() + " " + route.getPath();
+			this.matcher = AntPathRequestMatcher.antMatcher(
+					(route.getMethod() == null) ? null : HttpMethod.valueOf(route.getMethod()),
+					route.getPath());
+			this.key = route.getKey();
+			this.capacity = route.getCapacity();
+			this.refillPerSecond = route.getRefillPerSecond();
+			// Fail at startup rather than on the first matching request
+			newBucket(System.nanoTime());
+		}
+
+		private TokenBucket newBucket(long nowNanos) {
+			return new TokenBucket(this.capacity, this.refillPerSecond, nowNanos);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.codeshop.ecommerce.config.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-route request limits. The first route matching the method and path applies; requests no
+ * route matches are never throttled.
+ */
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+	private long maxBuckets = 100000;
+	private long idleSeconds = 600;
+	private List<Route> routes = new ArrayList<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getMaxBuckets() {
+		return maxBuckets;
+	}
+
+	public void setMaxBuckets(long maxBuckets) {
+		this.maxBuckets = maxBuckets;
+	}
+
+	public long getIdleSeconds() {
+		return idleSeconds;
+	}
+
+	public void setIdleSeconds(long idleSeconds) {
+		this.idleSeconds = idleSeconds;
+	}
+
+	public List<Route> getRoutes() {
+		return routes;
+	}
+
+	public void setRoutes(List<Route> routes) {
+		this.routes = routes;
+	}
+
+	public enum KeyType {
+		/** JWT username; anonymous requests are not throttled */
+		USER,
+		/** OAuth2 client the JWT was issued to; anonymous requests are not throttled */
+		CLIENT,
+		/** Remote address, for every request; set server.forward-headers-strategy behind a proxy */
+		IP
+	}
+
+	public static class Route {
+
+		private String method;
+		private String path;
+		private KeyType key = KeyType.USER;
+		private int capacity;
+		private double refillPerSecond;
+
+		public String getMethod() {
+			return method;
+		}
+
+		public void setMethod(String method) {
+			this.method = method;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		public KeyType getKey() {
+			return key;
+		}
+
+		public void setKey(KeyType key) {
+			this.key = key;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public double getRefillPerSecond() {
+			return refillPerSecond;
+		}
+
+		public void setRefillPerSecond(double refillPerSecond) {
+			this.refillPerSecond = refillPerSecond;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.codeshop.ecommerce.config.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock-free token bucket kept as a single theoretical arrival time (the generic cell rate
+ * algorithm). Each acquire advances that time by one emission interval; the bucket is empty
+ * once it runs more than {@code capacity} intervals ahead of now. One CAS per request, no
+ * refill thread and no lock.
+ */
+public class TokenBucket {
+
+	private final long emissionIntervalNanos;
+	private final long burstNanos;
+	private final AtomicLong theoreticalArrival;
+
+	public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+		Assert.isTrue(capacity > 0, "capacity must be greater than zero");
+		Assert.isTrue(refillPerSecond > 0, "refillPerSecond must be greater than zero");
+		this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+		this.burstNanos = this.emissionIntervalNanos * capacity;
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Takes one token. Returns zero when granted, otherwise how many nanoseconds the caller
+	 * has to wait for the next token; a refused call takes nothing.
+	 */
+	public long tryAcquire(long nowNanos) {
+		while (true) {
+			long current = this.theoreticalArrival.get();
+			long next = Math.max(current, nowNanos) + this.emissionIntervalNanos;
+			long ahead = next - nowNanos;
+			if (ahead > this.burstNanos) {
+				return ahead - this.burstNanos;
+			}
+			if (this.theoreticalArrival.compareAndSet(current, next)) {
+				return 0L;
+			}
+		}
+	}
+}
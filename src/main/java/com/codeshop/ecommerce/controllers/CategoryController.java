@@ -2,6 +2,7 @@ package com.codeshop.ecommerce.controllers;
 
 import com.codeshop.ecommerce.dto.CategoryDTO;
 import com.codeshop.ecommerce.services.CategoryService;
+import com.codeshop.ecommerce.services.cache.CategorySnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +20,8 @@ public class CategoryController {
 
     @GetMapping
     public ResponseEntity<List<CategoryDTO>> findAll() {
-        List<CategoryDTO> list = service.findAll();
-        return ResponseEntity.ok(list);
+        CategorySnapshot snapshot = service.findAllSnapshot();
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).body(snapshot.getCategories());
     }
 
 }
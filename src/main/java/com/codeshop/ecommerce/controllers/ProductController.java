@@ -2,17 +2,24 @@ package com.codeshop.ecommerce.controllers;
 
 import com.codeshop.ecommerce.dto.ProductDTO;
 import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.dto.ProductScrollDTO;
+import com.codeshop.ecommerce.dto.ProductSliceDTO;
 import com.codeshop.ecommerce.services.ProductService;
+import com.codeshop.ecommerce.services.cache.ProductJson;
+import com.codeshop.ecommerce.services.cache.ProductJsonCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Locale;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -21,10 +28,51 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductJsonCache jsonCache;
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
-        ProductDTO dto = service.findById(id);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<byte[]> findById(@PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+        ProductJson json = jsonCache.findById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (json.hasGzip() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.getGzip());
+        }
+        return response.body(json.getJson());
+    }
+
+    // An explicit gzip coding wins over "*"; either one only counts with a q-value above zero
+    private static boolean acceptsGzip(String acceptEncoding) {
+        Double gzip = null, any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip")) {
+                gzip = quality(parts);
+            }
+            else if (name.equals("*")) {
+                any = quality(parts);
+            }
+        }
+        return (gzip != null) ? gzip > 0 : (any != null && any > 0);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                }
+                catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 
     @GetMapping
@@ -35,6 +83,24 @@ public class ProductController {
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping(value = "/slice")
+    public ResponseEntity<ProductSliceDTO> findAllSlice(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            Pageable pageable) {
+        ProductSliceDTO dto = service.findAllSlice(name, pageable);
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(value = "/scroll")
+    public ResponseEntity<ProductScrollDTO> scroll(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        ProductScrollDTO dto = service.scroll(name, after, sort, size);
+        return ResponseEntity.ok(dto);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
     @PostMapping
     public ResponseEntity<ProductDTO> insert(@Valid @RequestBody ProductDTO dto) {
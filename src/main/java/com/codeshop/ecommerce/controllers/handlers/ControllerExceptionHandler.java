@@ -4,6 +4,7 @@ import com.codeshop.ecommerce.dto.CustomError;
 import com.codeshop.ecommerce.dto.ValidationError;
 import com.codeshop.ecommerce.services.exception.DataBaseException;
 import com.codeshop.ecommerce.services.exception.ForbiddenException;
+import com.codeshop.ecommerce.services.exception.InvalidCursorException;
 import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
@@ -48,4 +49,11 @@ public class ControllerExceptionHandler {
         CustomError error = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
         return ResponseEntity.status(status).body(error);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<CustomError> invalidCursor(InvalidCursorException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        CustomError error = new CustomError(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(error);
+    }
 }
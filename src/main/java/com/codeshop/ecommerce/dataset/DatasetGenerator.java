@@ -0,0 +1,323 @@
+package com.codeshop.ecommerce.dataset;
+
+import com.codeshop.ecommerce.entities.Category;
+import com.codeshop.ecommerce.entities.Order;
+import com.codeshop.ecommerce.entities.OrderStatus;
+import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with a synthetic catalog (profile "dataset"): categories, products with long
+ * descriptions, users, orders, order items and payments. Product popularity and orders per client
+ * follow Zipf distributions, so a few products and clients dominate like in production. Rows are
+ * written with batched JDBC inserts, one transaction per chunk, with ids after the ones already
+ * in the database; the id generators are then moved past the new rows.
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final String PASSWORD = "123456";
+    private static final long CLIENT_ROLE_ID = 1L;
+    private static final long ADMIN_ROLE_ID = 2L;
+    private static final Duration ORDER_PERIOD = Duration.ofDays(730);
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Dell", "Lenovo", "LG", "Xiaomi", "Asus",
+            "Acer", "Philips", "Motorola", "Nintendo", "Microsoft", "Logitech", "JBL", "Canon"};
+    private static final String[] KINDS = {"Notebook", "Smart TV", "Monitor", "Headphone", "Tablet", "Console",
+            "Camera", "Smartphone", "Keyboard", "Mouse", "Speaker", "Smartwatch", "Router", "Printer"};
+    private static final String[] MODELS = {"Pro", "Max", "Ultra", "Lite", "Air", "Plus", "Mini", "Gamer", "Slim", "Neo"};
+    private static final String[] WORDS = ("lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua enim ad minim veniam quis nostrud exercitation "
+            + "ullamco laboris nisi aliquip ex ea commodo consequat duis aute irure in reprehenderit voluptate velit "
+            + "esse cillum fugiat nulla pariatur excepteur sint occaecat cupidatat non proident sunt culpa qui officia "
+            + "deserunt mollit anim id est laborum").split(" ");
+    private static final String[] FIRST_NAMES = {"Maria", "Alex", "Ana", "João", "Pedro", "Lucas", "Julia", "Gabriel",
+            "Beatriz", "Rafael", "Fernanda", "Bruno", "Camila", "Diego", "Larissa", "Marcos"};
+    private static final String[] LAST_NAMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira", "Costa",
+            "Almeida", "Ferreira", "Rodrigues", "Gomes", "Martins", "Araújo", "Barbosa", "Ribeiro", "Carvalho"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Value("${dataset.categories:50}")
+    private int categories;
+
+    @Value("${dataset.products:200000}")
+    private int products;
+
+    @Value("${dataset.users:50000}")
+    private int users;
+
+    @Value("${dataset.orders:300000}")
+    private int orders;
+
+    @Value("${dataset.max-items-per-order:8}")
+    private int maxItemsPerOrder;
+
+    @Value("${dataset.product-zipf-exponent:1.1}")
+    private double productZipfExponent;
+
+    @Value("${dataset.client-zipf-exponent:0.8}")
+    private double clientZipfExponent;
+
+    @Value("${dataset.max-description-length:4000}")
+    private int maxDescriptionLength;
+
+    @Value("${dataset.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${dataset.seed:42}")
+    private long seed;
+
+    @Value("${dataset.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    private Random random;
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        random = new Random(seed);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+
+        long firstCategory = nextId("tb_category");
+        long firstProduct = nextId("tb_product");
+        long firstUser = nextId("tb_user");
+        long firstOrder = nextId("tb_order");
+
+        insertCategories(firstCategory);
+        double[] prices = insertProducts(firstProduct, firstCategory);
+        insertUsers(firstUser);
+        insertOrders(firstOrder, firstProduct, prices, firstUser);
+
+        moveIdGenerator(Category.class, "tb_category", firstCategory + categories);
+        moveIdGenerator(Product.class, "tb_product", firstProduct + products);
+        moveIdGenerator(User.class, "tb_user", firstUser + users);
+        moveIdGenerator(Order.class, "tb_order", firstOrder + orders);
+
+        logger.info("Dataset generated in {} s: {} categories, {} products, {} users, {} orders",
+                Duration.ofNanos(System.nanoTime() - start).toSeconds(), categories, products, users, orders);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void insertCategories(long firstId) {
+        List<Object[]> rows = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            rows.add(new Object[] {firstId + i, "Categoria " + (firstId + i)});
+        }
+        write("INSERT INTO tb_category (id, name) VALUES (?, ?)", rows);
+    }
+
+    private double[] insertProducts(long firstId, long firstCategory) {
+        double[] prices = new double[products];
+        ZipfDistribution categoryPopularity = new ZipfDistribution(categories, 1.0, random);
+
+        for (int chunk = 0; chunk < products; chunk += CHUNK_SIZE) {
+            int end = Math.min(products, chunk + CHUNK_SIZE);
+            List<Object[]> productRows = new ArrayList<>(end - chunk);
+            List<Object[]> categoryRows = new ArrayList<>(2 * (end - chunk));
+            for (int i = chunk; i < end; i++) {
+                long id = firstId + i;
+                prices[i] = Math.round((10.0 + Math.exp(random.nextDouble() * 9.0)) * 100.0) / 100.0;
+                productRows.add(new Object[] {id, productName(), prices[i], description(),
+                        "https://img.codeshop.com/products/" + id + ".jpg"});
+
+                int links = 1 + random.nextInt(3);
+                long[] linked = new long[links];
+                for (int l = 0; l < links; l++) {
+                    long category = firstCategory + categoryPopularity.sample();
+                    if (!contains(linked, l, category)) {
+                        linked[l] = category;
+                        categoryRows.add(new Object[] {id, category});
+                    }
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                batch("INSERT INTO tb_product (id, name, price, description, img_url) VALUES (?, ?, ?, ?, ?)", productRows);
+                batch("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", categoryRows);
+            });
+            progress("products", end, products);
+        }
+        return prices;
+    }
+
+    private void insertUsers(long firstId) {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        for (int chunk = 0; chunk < users; chunk += CHUNK_SIZE) {
+            int end = Math.min(users, chunk + CHUNK_SIZE);
+            List<Object[]> userRows = new ArrayList<>(end - chunk);
+            List<Object[]> roleRows = new ArrayList<>(end - chunk);
+            for (int i = chunk; i < end; i++) {
+                long id = firstId + i;
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                LocalDate birthDate = LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000));
+                userRows.add(new Object[] {id, name, "user" + id + "@codeshop.com",
+                        String.format("9%08d", random.nextInt(100_000_000)), passwordHash, birthDate});
+                roleRows.add(new Object[] {id, CLIENT_ROLE_ID});
+                if (random.nextInt(100) == 0) {
+                    roleRows.add(new Object[] {id, ADMIN_ROLE_ID});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                batch("INSERT INTO tb_user (id, name, email, phone, password, birth_date) VALUES (?, ?, ?, ?, ?, ?)", userRows);
+                batch("INSERT INTO tb_user_role (user_id, role_id) VALUES (?, ?)", roleRows);
+            });
+            progress("users", end, users);
+        }
+    }
+
+    private void insertOrders(long firstId, long firstProduct, double[] prices, long firstUser) {
+        ZipfDistribution productPopularity = new ZipfDistribution(products, productZipfExponent, random);
+        ZipfDistribution clientActivity = new ZipfDistribution(users, clientZipfExponent, random);
+        OrderStatus[] statuses = OrderStatus.values();
+        Instant periodStart = Instant.now().minus(ORDER_PERIOD);
+        int itemsPerOrder = Math.min(maxItemsPerOrder, products);
+
+        for (int chunk = 0; chunk < orders; chunk += CHUNK_SIZE) {
+            int end = Math.min(orders, chunk + CHUNK_SIZE);
+            List<Object[]> orderRows = new ArrayList<>(end - chunk);
+            List<Object[]> paymentRows = new ArrayList<>(end - chunk);
+            List<Object[]> itemRows = new ArrayList<>(4 * (end - chunk));
+            for (int i = chunk; i < end; i++) {
+                long id = firstId + i;
+                Instant moment = periodStart.plusSeconds((long) (random.nextDouble() * ORDER_PERIOD.toSeconds()));
+                OrderStatus status = statuses[random.nextInt(statuses.length)];
+                orderRows.add(new Object[] {id, Timestamp.from(moment), status.ordinal(), firstUser + clientActivity.sample()});
+
+                if (status != OrderStatus.WAITING_PAYMENT && status != OrderStatus.CANCELED) {
+                    paymentRows.add(new Object[] {id, Timestamp.from(moment.plusSeconds(60 + random.nextInt(86_400)))});
+                }
+
+                // mostly small baskets, occasionally a large one
+                int items = 1 + (int) Math.min(itemsPerOrder - 1, Math.floor(-Math.log(1.0 - random.nextDouble()) * 1.5));
+                long[] chosen = new long[items];
+                for (int n = 0; n < items; n++) {
+                    int product = productPopularity.sample();
+                    if (!contains(chosen, n, firstProduct + product)) {
+                        chosen[n] = firstProduct + product;
+                        itemRows.add(new Object[] {id, chosen[n], 1 + random.nextInt(3), prices[product]});
+                    }
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                batch("INSERT INTO tb_order (id, moment, status, client_id) VALUES (?, ?, ?, ?)", orderRows);
+                batch("INSERT INTO tb_payment (order_id, moment) VALUES (?, ?)", paymentRows);
+                batch("INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (?, ?, ?, ?)", itemRows);
+            });
+            progress("orders", end, orders);
+        }
+    }
+
+    private String productName() {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " "
+                + MODELS[random.nextInt(MODELS.length)] + " " + (100 + random.nextInt(9900));
+    }
+
+    // Lengths are skewed: most descriptions are a few sentences, some fill the limit
+    private String description() {
+        int length = (int) Math.min(maxDescriptionLength, 100 + Math.floor(-Math.log(1.0 - random.nextDouble()) * 600));
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    private void write(String sql, List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> batch(sql, rows));
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return (max == null) ? 1L : max + 1L;
+    }
+
+    /**
+     * Moves the entity's id generator past the inserted rows: the identity column is restarted, or
+     * with the "sequence" profile the sequence is restarted one allocation block further.
+     */
+    private void moveIdGenerator(Class<?> entity, String table, long nextId) {
+        Generator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(entity).getGenerator();
+        if (generator instanceof SequenceStyleGenerator sequence) {
+            String name = sequence.getDatabaseStructure().getPhysicalName().render();
+            long restart = nextId + sequence.getDatabaseStructure().getIncrementSize();
+            jdbcTemplate.execute("ALTER SEQUENCE " + name + " RESTART WITH " + restart);
+        }
+        else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+        }
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void progress(String what, int done, int total) {
+        if (done == total || done % (10 * CHUNK_SIZE) == 0) {
+            logger.info("Dataset: {} / {} {}", done, total, what);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.codeshop.ecommerce.dataset;
+
+import java.util.Random;
+
+/**
+ * Zipf distribution over ranks 0..n-1: rank k is drawn with probability proportional to
+ * 1 / (k + 1)^exponent. Sampling is a binary search over the precomputed cumulative weights.
+ * Ranks are mapped through a random permutation, so the most popular items are scattered
+ * across the id range instead of being the lowest ids.
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+    private final int[] permutation;
+    private final Random random;
+
+    public ZipfDistribution(int n, double exponent, Random random) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+        this.random = random;
+        cumulative = new double[n];
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+
+        permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+    }
+
+    /**
+     * Returns an index in 0..n-1; the same index keeps the same popularity for the whole run.
+     */
+    public int sample() {
+        return permutation[sampleRank()];
+    }
+
+    int sampleRank() {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < target) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -34,10 +34,14 @@ public class OrderDTO {
     }
 
     public OrderDTO(Order entity) {
+        this(entity, new ClientDTO(entity.getClient()));
+    }
+
+    public OrderDTO(Order entity, ClientDTO client) {
         this.id = entity.getId();
         this.moment = entity.getMoment();
         this.status = entity.getStatus();
-        this.client = new ClientDTO(entity.getClient());
+        this.client = client;
         this.payment = (entity.getPayment() == null) ? null : new PaymentDTO(entity.getPayment());
         for (OrderItem item : entity.getItems()) {
             OrderItemDTO itemDto = new OrderItemDTO(item);
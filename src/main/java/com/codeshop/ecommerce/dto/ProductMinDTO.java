@@ -12,6 +12,13 @@ public class ProductMinDTO {
     public ProductMinDTO() {
     }
 
+    public ProductMinDTO(Long id, String name, Double price, String imgUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imgUrl = imgUrl;
+    }
+
     public ProductMinDTO(Product entity) {
         id = entity.getId();
         name = entity.getName();
@@ -0,0 +1,34 @@
+package com.codeshop.ecommerce.dto;
+
+import java.util.List;
+
+public class ProductScrollDTO {
+
+    private List<ProductMinDTO> content;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public ProductScrollDTO(List<ProductMinDTO> content, Integer size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductMinDTO> getContent() {
+        return content;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
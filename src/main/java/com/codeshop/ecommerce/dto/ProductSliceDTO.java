@@ -0,0 +1,50 @@
+package com.codeshop.ecommerce.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public class ProductSliceDTO {
+
+    private List<ProductMinDTO> content;
+    private Integer number;
+    private Integer size;
+    private boolean hasNext;
+    private Long approximateTotalElements;
+
+    public ProductSliceDTO(List<ProductMinDTO> content, Integer number, Integer size, boolean hasNext, Long approximateTotalElements) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.approximateTotalElements = approximateTotalElements;
+    }
+
+    public ProductSliceDTO(Slice<ProductMinDTO> slice, Long approximateTotalElements) {
+        content = slice.getContent();
+        number = slice.getNumber();
+        size = slice.getSize();
+        hasNext = slice.hasNext();
+        this.approximateTotalElements = approximateTotalElements;
+    }
+
+    public List<ProductMinDTO> getContent() {
+        return content;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public Long getApproximateTotalElements() {
+        return approximateTotalElements;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "tb_category")
+@EntityListeners(CategoryListener.class)
 public class Category {
 
     @Id
@@ -7,6 +7,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "tb_role")
+@EntityListeners(RoleListener.class)
 public class Role implements GrantedAuthority {
 
     @Id
@@ -9,6 +9,7 @@ import java.util.*;
 
 @Entity
 @Table(name = "tb_user")
+@EntityListeners(UserListener.class)
 public class User implements UserDetails {
 
     @Id
@@ -0,0 +1,7 @@
+package com.codeshop.ecommerce.projections;
+
+public interface ProductNameProjection {
+
+    Long getId();
+    String getName();
+}
@@ -2,7 +2,9 @@ package com.codeshop.ecommerce.projections;
 
 public interface UserDetailsProjection {
 
+    Long getUserId();
     String getUsername();
+    String getName();
     String getPassword();
     Long getRoleId();
     String getAuthority();
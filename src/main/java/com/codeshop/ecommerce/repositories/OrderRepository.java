@@ -2,6 +2,18 @@ package com.codeshop.ecommerce.repositories;
 
 import com.codeshop.ecommerce.entities.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("SELECT obj " +
+            "FROM Order obj " +
+            "JOIN FETCH obj.client " +
+            "LEFT JOIN FETCH obj.payment " +
+            "LEFT JOIN FETCH obj.items item " +
+            "LEFT JOIN FETCH item.id.product " +
+            "WHERE obj.id = :id")
+    Optional<Order> searchById(Long id);
 }
@@ -1,15 +1,73 @@
 package com.codeshop.ecommerce.repositories;
 
+import com.codeshop.ecommerce.dto.ProductMinDTO;
 import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.projections.ProductNameProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT obj " +
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) ")
+    Page<ProductMinDTO> searchByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE obj.id IN :ids ")
+    Page<ProductMinDTO> searchByIds(Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) ")
+    Slice<ProductMinDTO> sliceByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE obj.id IN :ids ")
+    Slice<ProductMinDTO> sliceByIds(Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT COUNT(obj) " +
             "FROM Product obj " +
             "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) ")
-    Page<Product> searchByName(String name, Pageable pageable);
+    long countByName(String name);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.id > :lastId " +
+            "ORDER BY obj.id")
+    List<ProductMinDTO> scrollByNameOrderById(String name, Long lastId, Limit limit);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE obj.id IN :ids " +
+            "AND obj.id > :lastId " +
+            "ORDER BY obj.id")
+    List<ProductMinDTO> scrollByIdsOrderById(Collection<Long> ids, Long lastId, Limit limit);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (obj.name > :lastName OR (obj.name = :lastName AND obj.id > :lastId)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> scrollByNameOrderByName(String name, String lastName, Long lastId, Limit limit);
+
+    @Query("SELECT new com.codeshop.ecommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE obj.id IN :ids " +
+            "AND (obj.name > :lastName OR (obj.name = :lastName AND obj.id > :lastId)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> scrollByIdsOrderByName(Collection<Long> ids, String lastName, Long lastId, Limit limit);
+
+    @Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+    List<ProductNameProjection> searchAllNames();
 }
@@ -1,7 +1,7 @@
 package com.codeshop.ecommerce.services;
 
-import com.codeshop.ecommerce.entities.User;
 import com.codeshop.ecommerce.services.exception.ForbiddenException;
+import com.codeshop.ecommerce.util.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,11 +12,13 @@ public class AuthService {
     private UserService userService;
 
     public void validateSelfOrAdmin(Long userId) {
-        User me = userService.authenticated();
+        AuthenticatedUser me = userService.authenticatedUser();
         if (me.hasRole("ROLE_ADMIN")) {
             return;
         }
-        if(!me.getId().equals(userId)) {
+        // Tokens issued before the user_id claim existed still resolve the id from the database
+        Long myId = (me.getId() != null) ? me.getId() : userService.authenticated().getId();
+        if(!myId.equals(userId)) {
             throw new ForbiddenException("Accesso negado");
         }
     }
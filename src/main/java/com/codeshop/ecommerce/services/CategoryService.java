@@ -3,22 +3,65 @@ package com.codeshop.ecommerce.services;
 import com.codeshop.ecommerce.dto.CategoryDTO;
 import com.codeshop.ecommerce.entities.Category;
 import com.codeshop.ecommerce.repositories.CategoryRepository;
+import com.codeshop.ecommerce.services.cache.CategorySnapshot;
+import com.codeshop.ecommerce.services.cache.ProductCaches;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed("service.method")
 public class CategoryService {
 
     @Autowired
     private CategoryRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ProductCaches productCaches;
+
+    private final AtomicLong version = new AtomicLong();
+    // not synchronized: a virtual thread blocked on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile CategorySnapshot snapshot;
+
     public List<CategoryDTO> findAll() {
-        List<Category> result = repository.findAll();
-        return result.stream().map(x -> new CategoryDTO(x)).toList();
+        return findAllSnapshot().getCategories();
     }
 
+    public CategorySnapshot findAllSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long expectedVersion = version.get();
+            List<Category> result = repository.findAll();
+            CategorySnapshot built = new CategorySnapshot(expectedVersion, result.stream().map(x -> new CategoryDTO(x)).toList());
+            // a change committed while loading makes this snapshot stale, so it is served once but not kept
+            if (version.get() == expectedVersion) {
+                snapshot = built;
+            }
+            return built;
+        }
+        finally {
+            loadLock.unlock();
+        }
+    }
+
+    // product details embed category names, so cached products go too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(Category category) {
+        version.incrementAndGet();
+        snapshot = null;
+        productCaches.evictAll();
+    }
 }
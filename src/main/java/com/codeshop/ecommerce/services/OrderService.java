@@ -3,17 +3,22 @@ package com.codeshop.ecommerce.services;
 import com.codeshop.ecommerce.dto.OrderDTO;
 import com.codeshop.ecommerce.dto.OrderItemDTO;
 import com.codeshop.ecommerce.entities.*;
-import com.codeshop.ecommerce.repositories.OrderItemRepository;
 import com.codeshop.ecommerce.repositories.OrderRepository;
 import com.codeshop.ecommerce.repositories.ProductRepository;
 import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 public class OrderService {
 
     @Autowired
@@ -22,9 +27,6 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
 
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-
     @Autowired
     private UserService userService;
 
@@ -33,7 +35,7 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        Order order = repository.searchById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
         return new OrderDTO(order);
@@ -47,18 +49,29 @@ public class OrderService {
         order.setMoment(Instant.now());
         order.setStatus(OrderStatus.WAITING_PAYMENT);
 
-        User user = userService.authenticated();
+        User user = userService.authenticatedReference();
         order.setClient(user);
 
+        Map<Long, Product> products = findProducts(dto);
         for (OrderItemDTO itemDto : dto.getItems()) {
-            Product product = productRepository.getReferenceById(itemDto.getProductId());
+            Product product = products.get(itemDto.getProductId());
             OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
             order.getItems().add(item);
         }
 
         repository.save(order);
-        orderItemRepository.saveAll(order.getItems());
 
-        return new OrderDTO(order);
+        return new OrderDTO(order, userService.authenticatedClient(user));
+    }
+
+    private Map<Long, Product> findProducts(OrderDTO dto) {
+        List<Long> ids = dto.getItems().stream().map(x -> x.getProductId()).distinct().toList();
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(x -> x.getId(), Function.identity()));
+        List<Long> missing = ids.stream().filter(x -> !products.containsKey(x)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Produto não encontrado: " + missing);
+        }
+        return products;
     }
 }
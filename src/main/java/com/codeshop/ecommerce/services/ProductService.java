@@ -3,37 +3,116 @@ package com.codeshop.ecommerce.services;
 import com.codeshop.ecommerce.dto.CategoryDTO;
 import com.codeshop.ecommerce.dto.ProductDTO;
 import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.dto.ProductScrollDTO;
+import com.codeshop.ecommerce.dto.ProductSliceDTO;
 import com.codeshop.ecommerce.entities.Category;
 import com.codeshop.ecommerce.entities.Product;
 import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.cache.ProductCaches;
+import com.codeshop.ecommerce.services.cache.ProductCountCache;
 import com.codeshop.ecommerce.services.exception.DataBaseException;
 import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
+import com.codeshop.ecommerce.services.index.ProductNameIndex;
+import com.codeshop.ecommerce.util.ProductCursor;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed("service.method")
 public class ProductService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     @Autowired
     private ProductRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ProductCountCache countCache;
+
+    @Autowired
+    private ProductCaches caches;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // only a miss opens a transaction, so cache hits never take a connection
     public ProductDTO findById(Long id) {
-       Product product = repository.findById(id).orElseThrow(
-               () -> new ResourceNotFoundException("Recurso não encontrado"));
-       return new ProductDTO(product);
+        return caches.get(ProductCaches.PRODUCTS, id, () -> readOnlyTransaction().execute(status -> {
+            Product product = repository.findById(id).orElseThrow(
+                    () -> new ResourceNotFoundException("Recurso não encontrado"));
+            return new ProductDTO(product);
+        }));
     }
 
     @Transactional(readOnly = true)
     public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+        Optional<List<Long>> ids = nameIndex.search(name);
+        if (ids.isPresent() && ids.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return ids.isPresent()
+                ? repository.searchByIds(ids.get(), pageable)
+                : repository.searchByName(name, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductSliceDTO findAllSlice(String name, Pageable pageable) {
+        Optional<List<Long>> ids = nameIndex.search(name);
+        if (ids.isPresent()) {
+            if (ids.get().isEmpty()) {
+                return new ProductSliceDTO(List.of(), pageable.getPageNumber(), pageable.getPageSize(), false, 0L);
+            }
+            Slice<ProductMinDTO> result = repository.sliceByIds(ids.get(), pageable);
+            return new ProductSliceDTO(result, (long) ids.get().size());
+        }
+        Slice<ProductMinDTO> result = repository.sliceByName(name, pageable);
+        return new ProductSliceDTO(result, countCache.get(name));
+    }
+
+    @Transactional(readOnly = true)
+    public ProductScrollDTO scroll(String name, String after, String sort, int size) {
+        ProductCursor cursor = (after == null || after.isBlank()) ? ProductCursor.first(sort) : ProductCursor.decode(after);
+        size = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        Limit limit = Limit.of(size + 1);
+
+        Optional<List<Long>> ids = nameIndex.search(name);
+        if (ids.isPresent() && ids.get().isEmpty()) {
+            return new ProductScrollDTO(List.of(), size, false, null);
+        }
+
+        List<ProductMinDTO> result;
+        if (ProductCursor.SORT_NAME.equals(cursor.getSort())) {
+            result = ids.isPresent()
+                    ? repository.scrollByIdsOrderByName(ids.get(), cursor.getLastName(), cursor.getLastId(), limit)
+                    : repository.scrollByNameOrderByName(name, cursor.getLastName(), cursor.getLastId(), limit);
+        }
+        else {
+            result = ids.isPresent()
+                    ? repository.scrollByIdsOrderById(ids.get(), cursor.getLastId(), limit)
+                    : repository.scrollByNameOrderById(name, cursor.getLastId(), limit);
+        }
+
+        boolean hasNext = result.size() > size;
+        List<ProductMinDTO> content = result.stream().limit(size).toList();
+        String nextCursor = hasNext ? ProductCursor.after(cursor.getSort(), content.get(content.size() - 1)).encode() : null;
+        return new ProductScrollDTO(content, size, hasNext, nextCursor);
     }
 
     @Transactional
@@ -41,6 +120,7 @@ public class ProductService {
         Product product = new Product();
         copyDtoToEntity(dto, product);
         product = repository.save(product);
+        nameIndex.put(product.getId(), product.getName());
         return new ProductDTO(product);
     }
 
@@ -50,6 +130,8 @@ public class ProductService {
             Product product = repository.getReferenceById(id);
             copyDtoToEntity(dto, product);
             product = repository.save(product);
+            nameIndex.put(product.getId(), product.getName());
+            caches.evict(id);
             return new ProductDTO(product);
         }
         catch (EntityNotFoundException e) {
@@ -64,12 +146,20 @@ public class ProductService {
         }
         try {
             repository.deleteById(id);
+            nameIndex.delete(id);
+            caches.evict(id);
         }
         catch (DataIntegrityViolationException e) {
             throw new DataBaseException("Falha de integridade referencial");
         }
     }
 
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
     private void copyDtoToEntity(ProductDTO dto, Product product) {
         product.setName(dto.getName());
         product.setDescription(dto.getDescription());
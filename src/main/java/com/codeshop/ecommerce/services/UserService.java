@@ -1,12 +1,18 @@
 package com.codeshop.ecommerce.services;
 
+import com.codeshop.ecommerce.dto.ClientDTO;
 import com.codeshop.ecommerce.dto.UserDTO;
 import com.codeshop.ecommerce.entities.Role;
 import com.codeshop.ecommerce.entities.User;
 import com.codeshop.ecommerce.projections.UserDetailsProjection;
 import com.codeshop.ecommerce.repositories.UserRepository;
+import com.codeshop.ecommerce.util.AuthenticatedUser;
 import com.codeshop.ecommerce.util.CustomUserUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Service
+@Timed("service.method")
 public class UserService implements UserDetailsService {
 
     @Autowired
@@ -24,6 +31,7 @@ public class UserService implements UserDetailsService {
     @Autowired
     private CustomUserUtil customUserUtil;
 
+    @Cacheable(cacheNames = "userDetails", key = "#username")
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
@@ -33,7 +41,9 @@ public class UserService implements UserDetailsService {
         }
 
         User user = new User();
+        user.setId(result.get(0).getUserId());
         user.setEmail(result.get(0).getUsername());
+        user.setName(result.get(0).getName());
         user.setPassword(result.get(0).getPassword());
         for (UserDetailsProjection projection : result) {
             user.addRole(new Role(projection.getRoleId(), projection.getAuthority()));
@@ -42,6 +52,33 @@ public class UserService implements UserDetailsService {
         return user;
     }
 
+    protected AuthenticatedUser authenticatedUser() {
+        try {
+            return customUserUtil.getLoggedUser();
+        }
+        catch (Exception e) {
+            throw new UsernameNotFoundException("Email não localizado");
+        }
+    }
+
+    // Proxy built from the token claims; the row is only read if a field other than the id is accessed
+    protected User authenticatedReference() {
+        AuthenticatedUser principal = authenticatedUser();
+        if (principal.getId() == null) {
+            return authenticated();
+        }
+        return repository.getReferenceById(principal.getId());
+    }
+
+    // Client as named by the token claims, so a reference from authenticatedReference stays unloaded
+    protected ClientDTO authenticatedClient(User user) {
+        AuthenticatedUser principal = authenticatedUser();
+        if (principal.getId() == null || principal.getName() == null) {
+            return new ClientDTO(user);
+        }
+        return new ClientDTO(principal.getId(), principal.getName());
+    }
+
     protected User authenticated() {
         try {
             String username = customUserUtil.getLoggedUserName();
@@ -57,4 +94,15 @@ public class UserService implements UserDetailsService {
         User user = authenticated();
         return new UserDTO(user);
     }
+
+    // An email may have changed, so the whole cache goes; evictions wait for the commit
+    @CacheEvict(cacheNames = "userDetails", allEntries = true)
+    @EventListener
+    public void onUserChanged(User user) {
+    }
+
+    @CacheEvict(cacheNames = "userDetails", allEntries = true)
+    @EventListener
+    public void onRoleChanged(Role role) {
+    }
 }
@@ -0,0 +1,44 @@
+package com.codeshop.ecommerce.services.cache;
+
+import com.codeshop.ecommerce.dto.CategoryDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Immutable view of the category list. The ETag is derived from the content, so it is
+ * stable across restarts and across nodes serving the same data.
+ */
+public class CategorySnapshot {
+
+    private final long version;
+    private final List<CategoryDTO> categories;
+    private final String etag;
+
+    public CategorySnapshot(long version, List<CategoryDTO> categories) {
+        this.version = version;
+        this.categories = List.copyOf(categories);
+        this.etag = computeEtag(this.categories);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    private static String computeEtag(List<CategoryDTO> categories) {
+        StringBuilder sb = new StringBuilder();
+        for (CategoryDTO dto : categories) {
+            sb.append(dto.getId()).append(':').append(dto.getName()).append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
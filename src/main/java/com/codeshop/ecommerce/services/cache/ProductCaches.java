@@ -0,0 +1,93 @@
+package com.codeshop.ecommerce.services.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Reads and evicts the "products" and "productJson" caches. Evicting on update is not enough on its
+ * own: a read that loaded the row before the update committed can put its old copy back after the
+ * eviction. Every change therefore bumps a version for the id before evicting, and a read drops the
+ * entry it stored if the version moved while it was loading.
+ */
+@Component
+public class ProductCaches {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_JSON = "productJson";
+
+    // evicted in this order, since productJson entries are built from products entries
+    private static final List<String> CACHE_NAMES = List.of(PRODUCTS, PRODUCT_JSON);
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // ids share a stripe, which at worst drops an entry that was still fresh
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final AtomicLong allVersion = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, Long id, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper cached = cache.get(id);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long expectedVersion = version(id);
+        T value = loader.get();
+        // putIfAbsent and evictIfPresent are applied at once, not deferred to the reader's commit
+        cache.putIfAbsent(id, value);
+        if (version(id) != expectedVersion) {
+            cache.evictIfPresent(id);
+        }
+        return value;
+    }
+
+    public void evict(Long id) {
+        afterCommit(() -> {
+            for (String cacheName : CACHE_NAMES) {
+                versions.incrementAndGet(stripe(id));
+                cacheManager.getCache(cacheName).evictIfPresent(id);
+            }
+        });
+    }
+
+    public void evictAll() {
+        for (String cacheName : CACHE_NAMES) {
+            allVersion.incrementAndGet();
+            cacheManager.getCache(cacheName).invalidate();
+        }
+    }
+
+    // both counters only grow, so any bump after a read shows up in the sum
+    private long version(Long id) {
+        return allVersion.get() + versions.get(stripe(id));
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+}
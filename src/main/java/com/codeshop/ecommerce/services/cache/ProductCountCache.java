@@ -0,0 +1,62 @@
+package com.codeshop.ecommerce.services.cache;
+
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Approximate total of products matching a name filter. Values are served from memory and
+ * recomputed in the background once they are older than the refresh interval, so the slice
+ * listing never waits on a COUNT query.
+ */
+@Component
+public class ProductCountCache {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor executor;
+
+    @Value("${cache.product-count.max-size:1000}")
+    private long maxSize;
+
+    @Value("${cache.product-count.refresh-seconds:30}")
+    private long refreshSeconds;
+
+    private LoadingCache<String, Long> counts;
+
+    @PostConstruct
+    void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(refreshSeconds * 10))
+                .executor(executor)
+                .build(name -> repository.countByName(name));
+    }
+
+    /**
+     * Returns the last known total for the filter, or null when it was never computed.
+     * A missing or stale value is (re)loaded asynchronously.
+     */
+    public Long get(String name) {
+        String key = (name == null) ? "" : name.toUpperCase(Locale.ROOT);
+        Long total = counts.getIfPresent(key);
+        if (total == null) {
+            counts.refresh(key);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,28 @@
+package com.codeshop.ecommerce.services.cache;
+
+/**
+ * UTF-8 encoded JSON of a ProductDTO, plus its gzip form when the payload is large
+ * enough for compression to pay off.
+ */
+public class ProductJson {
+
+    private final byte[] json;
+    private final byte[] gzip;
+
+    public ProductJson(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+}
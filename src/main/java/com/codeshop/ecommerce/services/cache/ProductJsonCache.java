@@ -0,0 +1,61 @@
+package com.codeshop.ecommerce.services.cache;
+
+import com.codeshop.ecommerce.dto.ProductDTO;
+import com.codeshop.ecommerce.services.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps GET /products/{id} responses already encoded, so hot products skip Jackson on every
+ * request. Entries are evicted together with the "products" cache by ProductService.update/delete
+ * and by CategoryService on any category change.
+ */
+@Component
+public class ProductJsonCache {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCaches caches;
+
+    @Value("${cache.product-json.gzip-min-size:1024}")
+    private int gzipMinSize;
+
+    public ProductJson findById(Long id) {
+        return caches.get(ProductCaches.PRODUCT_JSON, id, () -> encode(productService.findById(id)));
+    }
+
+    private ProductJson encode(ProductDTO dto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(dto);
+            byte[] gzip = (gzipMinSize >= 0 && json.length >= gzipMinSize) ? gzip(json) : null;
+            return new ProductJson(json, gzip);
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
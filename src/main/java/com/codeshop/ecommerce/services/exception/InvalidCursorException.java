@@ -0,0 +1,8 @@
+package com.codeshop.ecommerce.services.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
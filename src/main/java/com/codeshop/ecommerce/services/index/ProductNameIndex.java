@@ -0,0 +1,174 @@
+package com.codeshop.ecommerce.services.index;
+
+import com.codeshop.ecommerce.projections.ProductNameProjection;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory trigram inverted index over product names. Answers the substring search
+ * that LIKE '%name%' would resolve with a full table scan, returning only the ids whose
+ * name actually contains the searched term.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    // rebuild holds it across a JDBC query, which must not pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Value("${search.product-index.max-ids:1000}")
+    private int maxIds = 1000;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            postings.clear();
+            names.clear();
+            for (ProductNameProjection projection : repository.searchAllNames()) {
+                add(projection.getId(), projection.getName());
+            }
+            ready = true;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the products whose name contains the term, or empty when the index
+     * cannot answer (not loaded yet, term shorter than a trigram or too many matches for an
+     * IN clause) and the caller should fall back to the LIKE query.
+     */
+    public Optional<List<Long>> search(String name) {
+        String term = normalize(name);
+        if (!ready || term.length() < GRAM_SIZE) {
+            return Optional.empty();
+        }
+
+        Set<Long> candidates = null;
+        for (String gram : trigrams(term)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return Optional.of(List.of());
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : candidates) {
+            String indexed = names.get(id);
+            if (indexed != null && indexed.contains(term)) {
+                result.add(id);
+                if (result.size() > maxIds) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(result);
+    }
+
+    public void put(Long id, String name) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                remove(id);
+                add(id, name);
+            }
+            finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public void delete(Long id) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                remove(id);
+            }
+            finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    private void add(Long id, String name) {
+        if (id == null || name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        names.put(id, normalized);
+        for (String gram : trigrams(normalized)) {
+            postings.computeIfAbsent(gram, x -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        String old = names.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : trigrams(old)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            result.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private static String normalize(String name) {
+        return (name == null) ? "" : name.toUpperCase(Locale.ROOT);
+    }
+
+    // Changes are applied only after commit so a rollback never leaves stale names behind
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+}
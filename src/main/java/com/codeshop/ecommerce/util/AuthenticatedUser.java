@@ -0,0 +1,46 @@
+package com.codeshop.ecommerce.util;
+
+import java.util.List;
+
+/**
+ * Logged user as described by the access token claims, available without a database query.
+ * The id and name are null for tokens issued without the user_id and name claims.
+ */
+public class AuthenticatedUser {
+
+    private final Long id;
+    private final String username;
+    private final String name;
+    private final List<String> authorities;
+
+    public AuthenticatedUser(Long id, String username, List<String> authorities) {
+        this(id, username, null, authorities);
+    }
+
+    public AuthenticatedUser(Long id, String username, String name, List<String> authorities) {
+        this.id = id;
+        this.username = username;
+        this.name = name;
+        this.authorities = (authorities == null) ? List.of() : List.copyOf(authorities);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasRole(String roleName) {
+        return authorities.contains(roleName);
+    }
+}
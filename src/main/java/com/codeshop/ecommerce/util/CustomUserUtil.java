@@ -9,8 +9,21 @@ import org.springframework.stereotype.Component;
 public class CustomUserUtil {
 
     public String getLoggedUserName() {
+        return getJwtPrincipal().getClaim("username");
+    }
+
+    public AuthenticatedUser getLoggedUser() {
+        Jwt jwtPrincipal = getJwtPrincipal();
+        Number userId = jwtPrincipal.getClaim("user_id");
+        return new AuthenticatedUser(
+                (userId == null) ? null : userId.longValue(),
+                jwtPrincipal.getClaim("username"),
+                jwtPrincipal.getClaim("name"),
+                jwtPrincipal.getClaimAsStringList("authorities"));
+    }
+
+    private Jwt getJwtPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-        return jwtPrincipal.getClaim("username");
+        return (Jwt) authentication.getPrincipal();
     }
 }
@@ -0,0 +1,68 @@
+package com.codeshop.ecommerce.util;
+
+import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.services.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the product listing. Carries the sort key and the
+ * (name, id) of the last row returned so the next page can seek past it
+ * instead of skipping OFFSET rows.
+ */
+public class ProductCursor {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_NAME = "name";
+
+    private final String sort;
+    private final Long lastId;
+    private final String lastName;
+
+    private ProductCursor(String sort, Long lastId, String lastName) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastName = lastName;
+    }
+
+    public static ProductCursor first(String sort) {
+        if (!SORT_ID.equals(sort) && !SORT_NAME.equals(sort)) {
+            throw new InvalidCursorException("Ordenação inválida: " + sort);
+        }
+        return new ProductCursor(sort, 0L, "");
+    }
+
+    public static ProductCursor after(String sort, ProductMinDTO last) {
+        return new ProductCursor(sort, last.getId(), SORT_NAME.equals(sort) ? last.getName() : "");
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            ProductCursor cursor = first(parts[0]);
+            return new ProductCursor(cursor.sort, Long.parseLong(parts[1]), parts[2]);
+        }
+        catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+    }
+
+    public String encode() {
+        String raw = sort + ":" + lastId + ":" + lastName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
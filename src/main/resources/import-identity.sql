@@ -0,0 +1,6 @@
+-- Restarts each identity column past the highest seeded id, so import.sql can gain rows without edits here
+ALTER TABLE tb_category ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_category);
+ALTER TABLE tb_product ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_product);
+ALTER TABLE tb_user ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_user);
+ALTER TABLE tb_role ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_role);
+ALTER TABLE tb_order ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_order);
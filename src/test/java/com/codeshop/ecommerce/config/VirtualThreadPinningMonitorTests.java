@@ -0,0 +1,63 @@
+package com.codeshop.ecommerce.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTests {
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        monitor.destroy();
+    }
+
+    @Test
+    public void monitorShouldCountVirtualThreadBlockedInsideSynchronized() throws Exception {
+        Object lock = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(100);
+            }
+        }).join();
+
+        // JFR hands events to the stream about once a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (monitor.getPinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.getPinnedCount() > 0);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        monitor.bindTo(registry);
+        assertEquals(monitor.getPinnedCount(), registry.get("jvm.threads.virtual.pinned").functionCounter().count());
+    }
+
+    @Test
+    public void monitorShouldNotCountVirtualThreadBlockedOutsideSynchronized() throws Exception {
+        Thread.ofVirtual().start(() -> sleep(100)).join();
+
+        Thread.sleep(2_000);
+        assertEquals(0, monitor.getPinnedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedOAuth2AuthorizationServiceTests {
+
+    private BoundedOAuth2AuthorizationService service;
+    private RegisteredClient registeredClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new BoundedOAuth2AuthorizationService(10, Duration.ofHours(1));
+        registeredClient = RegisteredClient.withId("client")
+                .clientId("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .build();
+    }
+
+    @Test
+    public void findByTokenShouldReturnAuthorizationWhenAccessTokenSaved() {
+        OAuth2Authorization authorization = createAuthorization(Instant.now().plusSeconds(60));
+        String token = authorization.getAccessToken().getToken().getTokenValue();
+
+        service.save(authorization);
+
+        assertEquals(authorization, service.findById(authorization.getId()));
+        assertEquals(authorization, service.findByToken(token, OAuth2TokenType.ACCESS_TOKEN));
+        assertEquals(authorization, service.findByToken(token, null));
+        assertNull(service.findByToken(token, OAuth2TokenType.REFRESH_TOKEN));
+    }
+
+    @Test
+    public void removeShouldForgetAuthorizationAndItsTokens() {
+        OAuth2Authorization authorization = createAuthorization(Instant.now().plusSeconds(60));
+        String token = authorization.getAccessToken().getToken().getTokenValue();
+        service.save(authorization);
+
+        service.remove(authorization);
+
+        assertNull(service.findById(authorization.getId()));
+        assertNull(service.findByToken(token, OAuth2TokenType.ACCESS_TOKEN));
+        assertEquals(0, service.indexSize());
+    }
+
+    @Test
+    public void saveShouldReplacePreviousTokensInIndex() {
+        OAuth2Authorization authorization = createAuthorization(Instant.now().plusSeconds(60));
+        String oldToken = authorization.getAccessToken().getToken().getTokenValue();
+        service.save(authorization);
+        OAuth2AccessToken newAccessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                UUID.randomUUID().toString(), Instant.now(), Instant.now().plusSeconds(60));
+        OAuth2Authorization updated = OAuth2Authorization.from(authorization).accessToken(newAccessToken).build();
+
+        service.save(updated);
+
+        assertNull(service.findByToken(oldToken, OAuth2TokenType.ACCESS_TOKEN));
+        assertEquals(updated, service.findByToken(newAccessToken.getTokenValue(), OAuth2TokenType.ACCESS_TOKEN));
+        assertEquals(1, service.indexSize());
+    }
+
+    @Test
+    public void saveShouldEvictAuthorizationsBeyondCapacity() {
+        for (int i = 0; i < 100; i++) {
+            service.save(createAuthorization(Instant.now().plusSeconds(60)));
+        }
+        service.cleanUp();
+
+        assertTrue(service.size() <= 10);
+        assertEquals(service.size(), service.indexSize());
+    }
+
+    @Test
+    public void findByIdShouldReturnNullWhenTokenExpired() {
+        OAuth2Authorization authorization = createAuthorization(Instant.now().minusSeconds(1));
+
+        service.save(authorization);
+        service.cleanUp();
+
+        assertNull(service.findById(authorization.getId()));
+        assertEquals(0, service.indexSize());
+    }
+
+    @Test
+    public void findByTokenShouldDropIndexEntryWhenAuthorizationExpired() {
+        OAuth2Authorization authorization = createAuthorization(Instant.now().minusSeconds(1));
+        String token = authorization.getAccessToken().getToken().getTokenValue();
+
+        service.save(authorization);
+
+        assertNull(service.findByToken(token, OAuth2TokenType.ACCESS_TOKEN));
+        assertEquals(0, service.indexSize());
+    }
+
+    @Test
+    public void bindToShouldRegisterSizeAndEvictionMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        service.save(createAuthorization(Instant.now().plusSeconds(60)));
+        service.cleanUp();
+
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "oauth2Authorizations").gauge().value());
+        assertNotNull(registry.get("cache.evictions").tag("cache", "oauth2Authorizations").functionCounter());
+    }
+
+    private OAuth2Authorization createAuthorization(Instant expiresAt) {
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                UUID.randomUUID().toString(), expiresAt.minusSeconds(120), expiresAt);
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .principalName("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .accessToken(accessToken)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ClientSecretMatchCacheTests {
+
+    private PasswordEncoder delegate;
+    private ClientSecretMatchCache encoder;
+    private String secret;
+    private String encodedSecret;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        delegate = spy(new BCryptPasswordEncoder(4));
+        encoder = new ClientSecretMatchCache(delegate, 16);
+        secret = "myclientsecret";
+        encodedSecret = delegate.encode(secret);
+    }
+
+    @Test
+    public void matchesShouldHashOnlyOnceWhenSecretMatchesRepeatedly() {
+        assertTrue(encoder.matches(secret, encodedSecret));
+        assertTrue(encoder.matches(secret, encodedSecret));
+        assertTrue(encoder.matches(secret, encodedSecret));
+
+        verify(delegate, times(1)).matches(secret, encodedSecret);
+    }
+
+    @Test
+    public void matchesShouldAlwaysHashWhenSecretIsWrong() {
+        encoder.matches(secret, encodedSecret);
+
+        assertFalse(encoder.matches("wrongsecret", encodedSecret));
+        assertFalse(encoder.matches("wrongsecret", encodedSecret));
+
+        verify(delegate, times(2)).matches("wrongsecret", encodedSecret);
+    }
+
+    @Test
+    public void matchesShouldHashAgainWhenStoredSecretChanges() {
+        String otherEncodedSecret = delegate.encode("othersecret");
+        encoder.matches(secret, encodedSecret);
+
+        assertFalse(encoder.matches(secret, otherEncodedSecret));
+        assertTrue(encoder.matches("othersecret", otherEncodedSecret));
+    }
+}
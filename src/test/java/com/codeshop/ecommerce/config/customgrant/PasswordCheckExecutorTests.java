@@ -0,0 +1,94 @@
+package com.codeshop.ecommerce.config.customgrant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordCheckExecutorTests {
+
+    private CountDownLatch release;
+    private CountDownLatch started;
+    private PasswordEncoder blockingEncoder;
+    private PasswordCheckExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        release = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void matchesShouldReturnEncoderResult() {
+        release.countDown();
+        executor = new PasswordCheckExecutor(blockingEncoder, 1, 1, Duration.ofSeconds(5));
+
+        assertTrue(executor.matches("123456", "123456"));
+        assertFalse(executor.matches("123456", "654321"));
+    }
+
+    @Test
+    public void matchesShouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        executor = new PasswordCheckExecutor(blockingEncoder, 1, 1, Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "b"));
+        while (executor.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> executor.matches("c", "c"));
+        assertEquals(1.0, registry.get("login.password.rejected").counter().count());
+        assertEquals(1.0, registry.get("login.password.queue").gauge().value());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, registry.get("login.password.hash").timer().count());
+    }
+
+    @Test
+    public void matchesShouldRejectWhenCheckTakesLongerThanTimeout() {
+        executor = new PasswordCheckExecutor(blockingEncoder, 1, 1, Duration.ofMillis(50));
+
+        assertThrows(RejectedExecutionException.class, () -> executor.matches("a", "a"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.codeshop.ecommerce.config.jwk;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingJwtDecoderTests {
+
+    private JwtDecoder delegate;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        delegate = mock(JwtDecoder.class);
+        decoder = new CachingJwtDecoder(delegate, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    public void decodeShouldVerifyTokenOnceWhenReused() {
+        Jwt jwt = createJwt("valid", Instant.now().plusSeconds(60));
+        when(delegate.decode("valid")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("valid"));
+        assertSame(jwt, decoder.decode("valid"));
+
+        verify(delegate, times(1)).decode("valid");
+    }
+
+    @Test
+    public void decodeShouldNotCacheRejectedToken() {
+        when(delegate.decode("invalid")).thenThrow(new BadJwtException("invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+
+        verify(delegate, times(2)).decode("invalid");
+    }
+
+    @Test
+    public void decodeShouldVerifyAgainWhenCachedTokenExpired() {
+        when(delegate.decode("expired")).thenReturn(createJwt("expired", Instant.now().minusSeconds(1)));
+
+        decoder.decode("expired");
+        decoder.decode("expired");
+
+        verify(delegate, times(2)).decode("expired");
+    }
+
+    @Test
+    public void bindToShouldRegisterHitAndMissMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        decoder.bindTo(registry);
+        when(delegate.decode("valid")).thenReturn(createJwt("valid", Instant.now().plusSeconds(60)));
+
+        decoder.decode("valid");
+        decoder.decode("valid");
+        decoder.decode("valid");
+
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", "jwtDecoder", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "jwtDecoder", "result", "miss").functionCounter().count());
+    }
+
+    private static Jwt createJwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("username", "maria@gmail.com")
+                .issuedAt(expiresAt.minusSeconds(120))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
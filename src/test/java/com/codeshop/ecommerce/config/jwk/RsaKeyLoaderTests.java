@@ -0,0 +1,52 @@
+package com.codeshop.ecommerce.config.jwk;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RsaKeyLoaderTests {
+
+    @Test
+    public void loadShouldReadEveryPemFileOfDirectoryUsingFileNameAsKeyId() throws Exception {
+        String directory = Path.of(getClass().getResource("/keys").toURI()).toString();
+
+        List<RSAKey> keys = RsaKeyLoader.load(directory, "PKCS12", "");
+
+        assertEquals(List.of("2026-01", "2026-02"), keys.stream().map(RSAKey::getKeyID).toList());
+        assertTrue(keys.stream().allMatch(RSAKey::isPrivate));
+    }
+
+    @Test
+    public void loadShouldReadEveryPrivateKeyEntryOfKeyStoreUsingAliasAsKeyId() {
+        List<RSAKey> keys = RsaKeyLoader.load("classpath:jwt-keys.p12", "PKCS12", "changeit");
+
+        assertEquals(List.of("2026-01", "2026-02"), keys.stream().map(RSAKey::getKeyID).toList());
+        assertTrue(keys.stream().allMatch(RSAKey::isPrivate));
+    }
+
+    @Test
+    public void loadShouldThrowIllegalStateExceptionWhenKeyStorePasswordIsWrong() {
+        assertThrows(IllegalStateException.class, () -> {
+            RsaKeyLoader.load("classpath:jwt-keys.p12", "PKCS12", "wrong");
+        });
+    }
+
+    @Test
+    public void loadShouldThrowIllegalStateExceptionWhenPemDirectoryIsOnClasspath() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            RsaKeyLoader.load("classpath:keys", "PKCS12", "");
+        });
+        assertTrue(e.getMessage().contains("file system path"));
+    }
+
+    @Test
+    public void loadShouldThrowIllegalStateExceptionWhenLocationDoesNotExist() {
+        assertThrows(IllegalStateException.class, () -> {
+            RsaKeyLoader.load("classpath:missing.p12", "PKCS12", "changeit");
+        });
+    }
+}
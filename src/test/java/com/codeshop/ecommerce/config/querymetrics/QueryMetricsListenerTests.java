@@ -0,0 +1,71 @@
+package com.codeshop.ecommerce.config.querymetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMetricsListenerTests {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestStatements.end();
+    }
+
+    @Test
+    public void afterQueryShouldTimeStatementByTypeAndOutcome() {
+        QueryMetricsListener listener = new QueryMetricsListener(registry, Duration.ofSeconds(10));
+
+        execute(listener, "select p1_0.id from tb_product p1_0 where p1_0.id=?", true);
+        execute(listener, "insert into tb_order (id) values (?)", false);
+
+        assertEquals(1, registry.get("db.query").tag("type", "select").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("db.query").tag("type", "insert").tag("outcome", "error").timer().count());
+        assertEquals(0.0, registry.get("db.query.slow").tag("type", "select").counter().count());
+    }
+
+    @Test
+    public void afterQueryShouldCountStatementsSlowerThanThreshold() {
+        QueryMetricsListener listener = new QueryMetricsListener(registry, Duration.ZERO);
+
+        execute(listener, "update tb_product set name=? where id=?", true);
+
+        assertEquals(1.0, registry.get("db.query.slow").tag("type", "update").counter().count());
+    }
+
+    @Test
+    public void afterQueryShouldCountStatementsOfCurrentRequestOnly() {
+        QueryMetricsListener listener = new QueryMetricsListener(registry, Duration.ofSeconds(10));
+
+        execute(listener, "select 1", true);
+        RequestStatements statements = RequestStatements.begin();
+        execute(listener, "select 1", true);
+        execute(listener, "select 1", true);
+
+        assertEquals(2, statements.getCount());
+        assertTrue(statements.getNanos() > 0L);
+    }
+
+    private static void execute(QueryMetricsListener listener, String sql, boolean success) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(execInfo, queries);
+        execInfo.setSuccess(success);
+        listener.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,72 @@
+package com.codeshop.ecommerce.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void tryAcquireShouldGrantUpToCapacityAtOnce() {
+        TokenBucket bucket = new TokenBucket(3, 1.0, 0L);
+
+        assertEquals(0L, bucket.tryAcquire(0L));
+        assertEquals(0L, bucket.tryAcquire(0L));
+        assertEquals(0L, bucket.tryAcquire(0L));
+        assertTrue(bucket.tryAcquire(0L) > 0L);
+    }
+
+    @Test
+    public void tryAcquireShouldReturnWaitUntilNextTokenWhenEmpty() {
+        TokenBucket bucket = new TokenBucket(1, 2.0, 0L);
+
+        bucket.tryAcquire(0L);
+
+        assertEquals(SECOND / 2, bucket.tryAcquire(0L));
+        assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+        assertEquals(0L, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    public void tryAcquireShouldNotRefillAboveCapacityWhenIdle() {
+        TokenBucket bucket = new TokenBucket(2, 10.0, 0L);
+        long later = 60 * SECOND;
+
+        assertEquals(0L, bucket.tryAcquire(later));
+        assertEquals(0L, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0L);
+    }
+
+    @Test
+    public void tryAcquireShouldGrantExactlyCapacityUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 0.001, 0L);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    if (bucket.tryAcquire(0L) == 0L) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+}
@@ -3,6 +3,7 @@ package com.codeshop.ecommerce.controllers;
 import com.codeshop.ecommerce.dto.CategoryDTO;
 import com.codeshop.ecommerce.entities.Category;
 import com.codeshop.ecommerce.services.CategoryService;
+import com.codeshop.ecommerce.services.cache.CategorySnapshot;
 import com.codeshop.ecommerce.tests.CategoryFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import java.util.List;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,7 +35,7 @@ public class CategoryControllerTests {
     private Category category;
     private CategoryDTO categoryDTO;
     private List<CategoryDTO> list;
-
+    private CategorySnapshot snapshot;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -42,7 +44,10 @@ public class CategoryControllerTests {
 
         list = List.of(categoryDTO);
 
+        snapshot = new CategorySnapshot(1L, list);
+
         when(service.findAll()).thenReturn(list);
+        when(service.findAllSnapshot()).thenReturn(snapshot);
     }
 
     @Test
@@ -53,6 +58,16 @@ public class CategoryControllerTests {
                 .andExpect(jsonPath("$[0].id").exists())
                 .andExpect(jsonPath("$[0].id").value(2L))
                 .andExpect(jsonPath("$[0].name").exists())
-                .andExpect(jsonPath("$[0].name").value("Home products"));
+                .andExpect(jsonPath("$[0].name").value("Home products"))
+                .andExpect(header().string("ETag", snapshot.getEtag()));
+    }
+
+    @Test
+    public void findAllShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/categories")
+                .header("If-None-Match", snapshot.getEtag())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(jsonPath("$").doesNotExist());
     }
 }
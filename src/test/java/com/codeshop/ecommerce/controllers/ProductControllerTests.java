@@ -2,9 +2,12 @@ package com.codeshop.ecommerce.controllers;
 
 import com.codeshop.ecommerce.dto.ProductDTO;
 import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.dto.ProductScrollDTO;
+import com.codeshop.ecommerce.dto.ProductSliceDTO;
 import com.codeshop.ecommerce.entities.Product;
 import com.codeshop.ecommerce.services.ProductService;
 import com.codeshop.ecommerce.services.exception.DataBaseException;
+import com.codeshop.ecommerce.services.exception.InvalidCursorException;
 import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
 import com.codeshop.ecommerce.tests.ProductFactory;
 import com.codeshop.ecommerce.tests.TokenUtil;
@@ -21,14 +24,18 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// Every product response is precompressed, so the Accept-Encoding negotiation is visible
+@SpringBootTest(properties = "cache.product-json.gzip-min-size=0")
 @AutoConfigureMockMvc
 public class ProductControllerTests {
 
@@ -85,6 +92,11 @@ public class ProductControllerTests {
 
         when(service.findAll(any(), any())).thenReturn(page);
 
+        when(service.findAllSlice(any(), any())).thenReturn(new ProductSliceDTO(List.of(productMinDTO), 0, 1, true, 25L));
+
+        when(service.scroll(any(), eq(null), any(), anyInt())).thenReturn(new ProductScrollDTO(List.of(productMinDTO), 1, true, "next"));
+        when(service.scroll(any(), eq("xpto"), any(), anyInt())).thenThrow(InvalidCursorException.class);
+
         when(service.insert(any())).thenReturn(productDTO);
 
         when(service.update(eq(existingProductId), any())).thenReturn(productDTO);
@@ -106,7 +118,33 @@ public class ProductControllerTests {
                 .andExpect(jsonPath("$.description").exists())
                 .andExpect(jsonPath("$.price").exists())
                 .andExpect(jsonPath("$.imgUrl").exists())
-                .andExpect(jsonPath("$.categories").exists());
+                .andExpect(jsonPath("$.categories").exists())
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+    }
+
+    @Test
+    public void findByIdShouldReturnGzipWhenAcceptEncodingAllowsIt() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .header("Accept-Encoding", "deflate, gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    public void findByIdShouldReturnPlainJsonWhenGzipHasZeroQuality() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .header("Accept-Encoding", "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.id").value(existingProductId));
+    }
+
+    @Test
+    public void findByIdShouldReturnPlainJsonWhenCodingOnlyContainsGzip() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .header("Accept-Encoding", "x-gzipped"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
     }
 
     @Test
@@ -136,6 +174,35 @@ public class ProductControllerTests {
                 .andExpect(jsonPath("$.pageable").exists());
     }
 
+    @Test
+    public void findAllSliceShouldReturnSliceWithoutPageMetadata() throws Exception {
+        mockMvc.perform(get("/products/slice?size=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(productName))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.approximateTotalElements").value(25L))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    public void scrollShouldReturnSliceWithNextCursor() throws Exception {
+        mockMvc.perform(get("/products/scroll?size=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(productName))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void scrollShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/products/scroll?after=xpto")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void insertShouldReturnProductDTOCreatedWhenLoggedAsAdmin() throws Exception {
         String jsonBody = objectMapper.writeValueAsString(productDTO);
@@ -0,0 +1,123 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConcurrentLoginIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentLoginIT.class);
+
+    private static final int THREADS = 8;
+    private static final int LOGINS = 64;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    private List<Login> logins;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        logins = List.of(
+                new Login("maria@gmail.com", "123456", 1L, List.of("ROLE_CLIENT")),
+                new Login("alex@gmail.com", "123456", 2L, List.of("ROLE_CLIENT", "ROLE_ADMIN")),
+                new Login("ana@gmail.com", "123456", 3L, List.of("ROLE_ADMIN")),
+                new Login("maria@gmail.com", "wrongpassword", null, null));
+    }
+
+    @Test
+    public void concurrentLoginsShouldIssueTokensMatchingEachRequester() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                Login login = logins.get(i % logins.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return verify(login, requestToken(login));
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<String> result : results) {
+                assertNull(result.get());
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            logger.info("{} logins on {} threads in {} s ({} logins/s)", LOGINS, THREADS,
+                    String.format("%.2f", seconds), String.format("%.1f", LOGINS / seconds));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletResponse requestToken(Login login) throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "password");
+        params.add("username", login.username());
+        params.add("password", login.password());
+
+        return mockMvc.perform(post("/oauth2/token")
+                        .params(params)
+                        .with(httpBasic(clientId, clientSecret))
+                        .accept("application/json;charset=UTF-8"))
+                .andReturn().getResponse();
+    }
+
+    // Returns a description of the mismatch, or null when the response belongs to the requester
+    private String verify(Login login, MockHttpServletResponse response) throws Exception {
+        if (login.userId() == null) {
+            return (response.getStatus() == 400) ? null : "wrong password got status " + response.getStatus();
+        }
+        if (response.getStatus() != 200) {
+            return login.username() + " got status " + response.getStatus();
+        }
+        String token = new JacksonJsonParser().parseMap(response.getContentAsString()).get("access_token").toString();
+        Jwt jwt = jwtDecoder.decode(token);
+        if (!login.username().equals(jwt.getClaim("username"))
+                || !login.userId().equals(((Number) jwt.getClaim("user_id")).longValue())
+                || !login.authorities().equals(jwt.getClaimAsStringList("authorities"))) {
+            return login.username() + " got token of " + jwt.getClaim("username") + " " + jwt.getClaimAsStringList("authorities");
+        }
+        return null;
+    }
+
+    private record Login(String username, String password, Long userId, List<String> authorities) {
+    }
+}
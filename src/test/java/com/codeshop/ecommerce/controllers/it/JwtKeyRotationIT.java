@@ -0,0 +1,89 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import com.codeshop.ecommerce.config.jwk.RsaKeyLoader;
+import com.codeshop.ecommerce.tests.TokenUtil;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "security.jwt.key-location=classpath:jwt-keys.p12",
+        "security.jwt.key-store-password=changeit",
+        "security.jwt.signing-key-id=2026-02"})
+@AutoConfigureMockMvc
+public class JwtKeyRotationIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    private String clientUsername, clientPassword;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clientUsername = "maria@gmail.com";
+        clientPassword = "123456";
+    }
+
+    @Test
+    public void tokenShouldBeSignedWithConfiguredKeyId() throws Exception {
+        String token = tokenUtil.obtainAccessToken(mockMvc, clientUsername, clientPassword);
+
+        assertEquals("2026-02", SignedJWT.parse(token).getHeader().getKeyID());
+    }
+
+    @Test
+    public void jwksShouldPublishEveryLoadedKey() throws Exception {
+        mockMvc.perform(get("/oauth2/jwks")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[*].kid", containsInAnyOrder("2026-01", "2026-02")))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    public void getMeShouldAcceptTokenSignedWithPreviousKey() throws Exception {
+        RSAKey previousKey = RsaKeyLoader.load("classpath:jwt-keys.p12", "PKCS12", "changeit").get(0);
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(previousKey)));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("myclientid")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .claim("username", clientUsername)
+                .claim("user_id", 1L)
+                .claim("authorities", List.of("ROLE_CLIENT"))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(previousKey.getKeyID()).build();
+        String token = encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+
+        mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(clientUsername));
+    }
+}
@@ -0,0 +1,64 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A timeout shorter than one BCrypt hash makes every login overflow the password check pool
+@SpringBootTest(properties = "security.password-check.timeout-ms=1")
+@AutoConfigureMockMvc
+public class LoginAdmissionIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Test
+    public void tokenShouldReturnServiceUnavailableWhenPasswordCheckPoolSaturated() throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "password");
+        params.add("username", "maria@gmail.com");
+        params.add("password", "123456");
+
+        mockMvc.perform(post("/oauth2/token")
+                        .params(params)
+                        .with(httpBasic(clientId, clientSecret))
+                        .accept("application/json;charset=UTF-8"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"));
+    }
+
+    @Test
+    public void tokenShouldReturnUnauthorizedWhenClientSecretIsWrong() throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "password");
+        params.add("username", "maria@gmail.com");
+        params.add("password", "123456");
+
+        mockMvc.perform(post("/oauth2/token")
+                        .params(params)
+                        .with(httpBasic(clientId, clientSecret))
+                        .accept("application/json;charset=UTF-8"));
+        mockMvc.perform(post("/oauth2/token")
+                        .params(params)
+                        .with(httpBasic(clientId, "wrongsecret"))
+                        .accept("application/json;charset=UTF-8"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("invalid_client"));
+    }
+}
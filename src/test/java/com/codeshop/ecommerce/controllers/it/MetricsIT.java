@@ -0,0 +1,98 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import com.codeshop.ecommerce.tests.TokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsIT {
+
+    private static final String CATEGORY_SERVICE = "com.codeshop.ecommerce.services.CategoryService";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+    }
+
+    @Test
+    public void serviceCallShouldBeTimedByClassAndMethod() throws Exception {
+        mockMvc.perform(get("/categories")).andExpect(status().isOk());
+
+        Timer timer = registry.get("service.method").tag("class", CATEGORY_SERVICE).tag("method", "findAllSnapshot").timer();
+        assertTrue(timer.count() > 0);
+        assertEquals(4, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    public void requestShouldBeTimedByRouteWithPercentiles() throws Exception {
+        mockMvc.perform(get("/products/{id}", 2L)).andExpect(status().isOk());
+
+        Timer timer = registry.get("http.server.requests").tag("uri", "/products/{id}").tag("status", "200").timer();
+        assertTrue(timer.count() > 0);
+        assertEquals(4, timer.takeSnapshot().percentileValues().length);
+        assertTrue(timer.takeSnapshot().histogramCounts().length > 0);
+    }
+
+    @Test
+    public void handledExceptionShouldBeCountedByType() throws Exception {
+        double before = exceptions("ResourceNotFoundException");
+
+        mockMvc.perform(get("/products/{id}", 1000L)).andExpect(status().isNotFound());
+
+        assertEquals(before + 1, exceptions("ResourceNotFoundException"));
+    }
+
+    @Test
+    public void metricsEndpointShouldExposeServiceTimers() throws Exception {
+        mockMvc.perform(get("/categories")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/service.method")
+                        .param("tag", "class:" + CATEGORY_SERVICE)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("service.method"));
+    }
+
+    @Test
+    public void prometheusEndpointShouldExposeRouteHistogramBuckets() throws Exception {
+        mockMvc.perform(get("/products/{id}", 2L)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket")
+                && line.contains("uri=\"/products/{id}\"")));
+        assertTrue(scrape.contains("service_method_seconds_bucket"));
+    }
+
+    private double exceptions(String type) {
+        return registry.find("http.server.exceptions").tag("exception", type).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+}
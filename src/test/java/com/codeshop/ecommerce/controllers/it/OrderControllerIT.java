@@ -9,6 +9,10 @@ import com.codeshop.ecommerce.tests.OrderFactory;
 import com.codeshop.ecommerce.tests.ProductFactory;
 import com.codeshop.ecommerce.tests.TokenUtil;
 import com.codeshop.ecommerce.tests.UserFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,6 +38,9 @@ public class OrderControllerIT {
     @Autowired
     private TokenUtil tokenUtil;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private Long existingOrderId;
     private Long nonExistingOrderId;
 
@@ -139,4 +147,55 @@ public class OrderControllerIT {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void insertShouldReturnCreatedWithPricedItemsWhenClientLogged() throws Exception {
+        String jsonBody = "{\"items\": [{\"productId\": 1, \"quantity\": 2}, {\"productId\": 3, \"quantity\": 1}]}";
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("WAITING_PAYMENT"))
+                .andExpect(jsonPath("$.client.name").value("Maria Brown"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.total").value(1431.0));
+    }
+
+    @Test
+    public void insertShouldNotLoadClientWhenTokenCarriesName() throws Exception {
+        String jsonBody = "{\"items\": [{\"productId\": 1, \"quantity\": 2}, {\"productId\": 3, \"quantity\": 1}]}";
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.client.id").value(1L))
+                .andExpect(jsonPath("$.client.name").value("Maria Brown"));
+        entityManager.flush();
+
+        // products, order insert and one batched item insert
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void insertShouldReturnNotFoundWhenProductIdDoesNotExist() throws Exception {
+        String jsonBody = "{\"items\": [{\"productId\": 1, \"quantity\": 2}, {\"productId\": 1000, \"quantity\": 1}]}";
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Produto não encontrado: [1000]"));
+    }
 }
@@ -0,0 +1,18 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=" + ThreadModelBenchmark.WORKER_THREADS)
+@Import(ThreadModelBenchmark.BlockingEndpoint.class)
+public class PlatformThreadConcurrencyIT extends ThreadModelBenchmark {
+
+    @Test
+    public void blockingRequestsShouldQueueForWorkerThreadsWhenPlatformThreads() throws Exception {
+        assertTrue(burstMillis(false) >= WAVES_MILLIS);
+    }
+}
@@ -88,6 +88,43 @@ public class ProductControllerIT {
                 .andExpect(jsonPath("$.content[0].imgUrl").value("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg"));
     }
 
+    @Test
+    public void findAllSliceShouldReturnSliceWithExactTotalWhenNameIsIndexed() throws Exception {
+        mockMvc.perform(get("/products/slice?name={productName}&size=1", productName)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3L))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.approximateTotalElements").value(1L));
+    }
+
+    @Test
+    public void findAllSliceShouldReturnSliceWhenNameParamIsEmpty() throws Exception {
+        mockMvc.perform(get("/products/slice?size=12")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content.length()").value(12))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    public void scrollShouldWalkPagesWithCursorSortedByName() throws Exception {
+        String body = mockMvc.perform(get("/products/scroll?name={productName}&sort=name&size=1", "gamer")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("PC Gamer"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/products/scroll?name={productName}&size=1&after={cursor}", "gamer", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("PC Gamer Alfa"));
+    }
+
     @Test
     public void insertShouldReturnProductDTOCreatedWhenAdminLogged() throws Exception {
         String jsonBody = objectMapper.writeValueAsString(productDTO);
@@ -0,0 +1,88 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import com.codeshop.ecommerce.tests.TokenUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every statement is slow and every request that touches the database is over budget
+@SpringBootTest(properties = {
+        "query-metrics.slow-threshold-ms=0",
+        "query-metrics.statement-budget=0"
+})
+@AutoConfigureMockMvc
+public class QueryMetricsIT {
+
+    private static final String ORDER_URI = "/orders/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+    }
+
+    @Test
+    public void findOrderShouldLoadAggregateWithoutPerRowQueries() throws Exception {
+        findOrder(1L);
+
+        DistributionSummary statements = registry.get("db.request.statements")
+                .tag("method", "GET").tag("uri", ORDER_URI).summary();
+        assertTrue(statements.count() > 0);
+        assertTrue(statements.max() >= 1.0);
+        assertTrue(statements.max() <= 2.0);
+    }
+
+    @Test
+    public void requestOverStatementBudgetShouldBeCounted() throws Exception {
+        double before = budgetExceeded();
+
+        findOrder(1L);
+
+        assertEquals(before + 1, budgetExceeded());
+    }
+
+    @Test
+    public void statementsShouldBeTimedAndCountedAsSlowOverThreshold() throws Exception {
+        long selects = registry.get("db.query").tag("type", "select").tag("outcome", "success").timer().count();
+        double slow = registry.get("db.query.slow").tag("type", "select").counter().count();
+
+        findOrder(1L);
+
+        assertTrue(registry.get("db.query").tag("type", "select").tag("outcome", "success").timer().count() > selects);
+        assertTrue(registry.get("db.query.slow").tag("type", "select").counter().count() > slow);
+    }
+
+    @Test
+    public void connectionPoolMetricsShouldSurviveDataSourceProxy() {
+        assertNotNull(registry.find("hikaricp.connections").gauge());
+    }
+
+    private void findOrder(Long id) throws Exception {
+        mockMvc.perform(get("/orders/{id}", id).header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private double budgetExceeded() {
+        return registry.find("db.request.budget.exceeded").tag("method", "GET").tag("uri", ORDER_URI)
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
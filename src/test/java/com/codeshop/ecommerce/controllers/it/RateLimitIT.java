@@ -0,0 +1,82 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import com.codeshop.ecommerce.tests.TokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Lists are not merged across property sources, so the whole route is restated. One request
+// per hour after the burst, so nothing refills while the test runs
+@SpringBootTest(properties = {
+        "rate-limit.routes[0].method=GET",
+        "rate-limit.routes[0].path=/products/**",
+        "rate-limit.routes[0].key=USER",
+        "rate-limit.routes[0].capacity=2",
+        "rate-limit.routes[0].refill-per-second=0.0003"
+})
+@AutoConfigureMockMvc
+public class RateLimitIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String clientToken, adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clientToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+        adminToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+    }
+
+    @Test
+    public void requestsShouldReturnTooManyRequestsPerUserWhenBurstExhausted() throws Exception {
+        double rejectedBefore = rejected();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/products/1").header("Authorization", "Bearer " + clientToken))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/products/1").header("Authorization", "Bearer " + clientToken))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.path").value("/products/1"));
+
+        mockMvc.perform(get("/products/1").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk());
+
+        assertEquals(rejectedBefore + 1, rejected());
+    }
+
+    @Test
+    public void anonymousRequestsShouldNotBeThrottledOnUserRoute() throws Exception {
+        double rejectedBefore = rejected();
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/products/1"))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(rejectedBefore, rejected());
+    }
+
+    private double rejected() {
+        return meterRegistry.get("rate.limit.rejected").tag("route", "GET /products/**").functionCounter().count();
+    }
+}
@@ -0,0 +1,173 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import com.codeshop.ecommerce.entities.Role;
+import com.codeshop.ecommerce.entities.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RefreshTokenIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    private String clientUsername, clientPassword, adminUsername;
+    private Long adminId, adminRoleId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clientUsername = "maria@gmail.com";
+        clientPassword = "123456";
+        adminUsername = "alex@gmail.com";
+        adminId = 2L;
+        adminRoleId = 2L;
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(User.class, adminId).addRole(entityManager.find(Role.class, adminRoleId)));
+    }
+
+    @Test
+    public void passwordGrantShouldIssueRefreshToken() throws Exception {
+        Map<String, Object> tokens = login();
+
+        assertNotNull(tokens.get("access_token"));
+        assertNotNull(tokens.get("refresh_token"));
+    }
+
+    @Test
+    public void refreshGrantShouldIssueNewTokensWithoutCheckingPassword() throws Exception {
+        String refreshToken = login().get("refresh_token").toString();
+        long hashes = meterRegistry.get("login.password.hash").timer().count();
+
+        Map<String, Object> tokens = parse(refresh(refreshToken).andExpect(status().isOk()));
+
+        assertEquals(hashes, meterRegistry.get("login.password.hash").timer().count());
+        assertNotEquals(refreshToken, tokens.get("refresh_token"));
+        mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + tokens.get("access_token"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(clientUsername));
+    }
+
+    @Test
+    public void refreshGrantShouldRejectRotatedRefreshToken() throws Exception {
+        String refreshToken = login().get("refresh_token").toString();
+        refresh(refreshToken).andExpect(status().isOk());
+
+        refresh(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void refreshGrantShouldRejectRevokedRefreshToken() throws Exception {
+        String refreshToken = login().get("refresh_token").toString();
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("token", refreshToken);
+        params.add("token_type_hint", "refresh_token");
+        mockMvc.perform(post("/oauth2/revoke")
+                        .params(params)
+                        .with(httpBasic(clientId, clientSecret)))
+                .andExpect(status().isOk());
+
+        refresh(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void refreshGrantShouldIssueCurrentAuthoritiesWhenRoleRemoved() throws Exception {
+        Map<String, Object> loginTokens = login(adminUsername);
+        assertTrue(authorities(loginTokens).contains("ROLE_ADMIN"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(User.class, adminId).getRoles().removeIf(role -> role.getId().equals(adminRoleId)));
+        Map<String, Object> tokens = parse(refresh(loginTokens.get("refresh_token").toString()).andExpect(status().isOk()));
+
+        assertEquals(List.of("ROLE_CLIENT"), authorities(tokens));
+    }
+
+    private Map<String, Object> login() throws Exception {
+        return login(clientUsername);
+    }
+
+    private Map<String, Object> login(String username) throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "password");
+        params.add("username", username);
+        params.add("password", clientPassword);
+        return parse(token(params).andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "refresh_token");
+        params.add("refresh_token", refreshToken);
+        return token(params);
+    }
+
+    private ResultActions token(MultiValueMap<String, String> params) throws Exception {
+        return mockMvc.perform(post("/oauth2/token")
+                .params(params)
+                .with(httpBasic(clientId, clientSecret))
+                .accept("application/json;charset=UTF-8"));
+    }
+
+    private static List<?> authorities(Map<String, Object> tokens) {
+        String payload = tokens.get("access_token").toString().split("\\.")[1];
+        String json = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+        return (List<?>) new JacksonJsonParser().parseMap(json).get("authorities");
+    }
+
+    private static Map<String, Object> parse(ResultActions result) throws Exception {
+        return new JacksonJsonParser().parseMap(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,84 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires concurrent requests at an endpoint that blocks like a slow JDBC call, against a Tomcat
+ * limited to {@value #WORKER_THREADS} worker threads. Platform threads serve them in waves of
+ * that size; virtual threads release the carrier while blocked and serve them all at once.
+ */
+public abstract class ThreadModelBenchmark {
+
+    protected static final int WORKER_THREADS = 8;
+    protected static final int REQUESTS = 64;
+    protected static final long IO_MILLIS = 500;
+
+    // Lower bound when requests wait for a free worker thread
+    protected static final long WAVES_MILLIS = (REQUESTS / WORKER_THREADS) * IO_MILLIS;
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModelBenchmark.class);
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Runs the burst and returns its wall time in milliseconds, checking every response reports
+     * the expected kind of request thread.
+     */
+    protected long burstMillis(boolean expectVirtual) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bench/io")).build();
+
+        // one warm-up request so connection setup and first dispatch stay out of the measurement
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.ofString())));
+            }
+            for (Future<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+                assertEquals(String.valueOf(expectVirtual), response.get().body());
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            logger.info("{} requests blocking {} ms each on {} threads: {} ms ({} req/s)", REQUESTS, IO_MILLIS,
+                    expectVirtual ? "virtual" : WORKER_THREADS + " platform", elapsed, REQUESTS * 1000 / Math.max(1, elapsed));
+            return elapsed;
+        }
+    }
+
+    @TestConfiguration
+    static class BlockingEndpoint {
+
+        @Bean
+        RouterFunction<ServerResponse> blockingIo() {
+            return RouterFunctions.route()
+                    .GET("/bench/io", request -> {
+                        Thread.sleep(IO_MILLIS);
+                        return ServerResponse.ok().body(String.valueOf(Thread.currentThread().isVirtual()));
+                    })
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.codeshop.ecommerce.controllers.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=" + ThreadModelBenchmark.WORKER_THREADS)
+@ActiveProfiles({"test", "virtual"})
+@Import(ThreadModelBenchmark.BlockingEndpoint.class)
+public class VirtualThreadConcurrencyIT extends ThreadModelBenchmark {
+
+    @Test
+    public void blockingRequestsShouldNotWaitForWorkerThreadsWhenVirtualThreads() throws Exception {
+        assertTrue(burstMillis(true) < WAVES_MILLIS / 2);
+    }
+}
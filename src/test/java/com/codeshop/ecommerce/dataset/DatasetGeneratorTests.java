@@ -0,0 +1,76 @@
+package com.codeshop.ecommerce.dataset;
+
+import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datasetdb",
+        "dataset.categories=10",
+        "dataset.products=2000",
+        "dataset.users=300",
+        "dataset.orders=3000"
+})
+@ActiveProfiles({"test", "dataset"})
+@DirtiesContext
+public class DatasetGeneratorTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void generatorShouldAppendRowsAfterSeedData() {
+        assertEquals(3 + 10, count("SELECT COUNT(*) FROM tb_category"));
+        assertEquals(25 + 2000, count("SELECT COUNT(*) FROM tb_product"));
+        assertEquals(3 + 300, count("SELECT COUNT(*) FROM tb_user"));
+        assertEquals(3 + 3000, count("SELECT COUNT(*) FROM tb_order"));
+        assertEquals(0, count("SELECT COUNT(*) FROM tb_product p WHERE NOT EXISTS "
+                + "(SELECT 1 FROM tb_product_category pc WHERE pc.product_id = p.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM tb_order o WHERE NOT EXISTS "
+                + "(SELECT 1 FROM tb_order_item i WHERE i.order_id = o.id)"));
+    }
+
+    @Test
+    public void generatorShouldPayOnlyOrdersPastWaitingPayment() {
+        assertEquals(0, count("SELECT COUNT(*) FROM tb_payment p JOIN tb_order o ON o.id = p.order_id "
+                + "WHERE o.status IN (0, 4)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM tb_order o WHERE o.status IN (1, 2, 3) AND NOT EXISTS "
+                + "(SELECT 1 FROM tb_payment p WHERE p.order_id = o.id)"));
+    }
+
+    @Test
+    public void generatorShouldSkewItemsTowardsPopularProducts() {
+        long items = count("SELECT COUNT(*) FROM tb_order_item WHERE order_id > 3");
+        // the 20 best sellers out of 2000 (1%) carry a large share of all items
+        long topItems = count("SELECT COALESCE(SUM(c), 0) FROM (SELECT COUNT(*) c FROM tb_order_item "
+                + "WHERE order_id > 3 GROUP BY product_id ORDER BY c DESC LIMIT 20) t");
+        assertTrue(topItems > items / 4);
+    }
+
+    @Test
+    public void generatorShouldWriteLongDescriptions() {
+        assertTrue(count("SELECT MAX(LENGTH(description)) FROM tb_product") > 1000);
+    }
+
+    @Test
+    @Transactional
+    public void insertShouldGetIdAfterGeneratedRows() {
+        Product product = productRepository.saveAndFlush(new Product(null, "Kindle", "Leitor de livros digitais", 499.0, ""));
+        assertEquals(25 + 2000 + 1, product.getId());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
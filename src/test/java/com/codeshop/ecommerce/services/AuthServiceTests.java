@@ -3,6 +3,7 @@ package com.codeshop.ecommerce.services;
 import com.codeshop.ecommerce.entities.User;
 import com.codeshop.ecommerce.services.exception.ForbiddenException;
 import com.codeshop.ecommerce.tests.UserFactory;
+import com.codeshop.ecommerce.util.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +11,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 public class AuthServiceTests {
@@ -23,21 +26,21 @@ public class AuthServiceTests {
     @Mock
     private UserService userService;
 
-    private User admin;
-    private User selfClient;
+    private AuthenticatedUser admin;
+    private AuthenticatedUser selfClient;
     private User otherClient;
 
     @BeforeEach
     void setUp() throws Exception {
-        admin = UserFactory.createAdminUser();
-        selfClient = UserFactory.createCustomClientUser(1L, "Bob");
+        admin = new AuthenticatedUser(2L, "alex@gmail.com", List.of("ROLE_CLIENT", "ROLE_ADMIN"));
+        selfClient = new AuthenticatedUser(1L, "bob@gmail.com", List.of("ROLE_CLIENT"));
         otherClient = UserFactory.createCustomClientUser(2L, "Ana");
     }
 
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenAdminLogged() throws Exception {
-        when(userService.authenticated()).thenReturn(admin);
-        Long userId = admin.getId();
+        when(userService.authenticatedUser()).thenReturn(admin);
+        Long userId = otherClient.getId();
 
         assertDoesNotThrow(() -> {
             service.validateSelfOrAdmin(userId);
@@ -46,21 +49,33 @@ public class AuthServiceTests {
 
     @Test
     public void validateSelfOrAdminShouldDoNothingWhenSelfLogged() throws Exception {
-        when(userService.authenticated()).thenReturn(selfClient);
+        when(userService.authenticatedUser()).thenReturn(selfClient);
         Long userId = selfClient.getId();
 
         assertDoesNotThrow(() -> {
             service.validateSelfOrAdmin(userId);
         });
+        verify(userService, never()).authenticated();
     }
 
     @Test
     public void validateSelfOrAdminThrowsForbiddenExceptionWhenClientOtherLogged() {
-        when(userService.authenticated()).thenReturn(selfClient);
+        when(userService.authenticatedUser()).thenReturn(selfClient);
         Long userId = otherClient.getId();
 
         assertThrows(ForbiddenException.class, () -> {
             service.validateSelfOrAdmin(userId);
         });
     }
+
+    @Test
+    public void validateSelfOrAdminShouldLoadUserWhenTokenHasNoUserId() throws Exception {
+        User self = UserFactory.createCustomClientUser(1L, "bob@gmail.com");
+        when(userService.authenticatedUser()).thenReturn(new AuthenticatedUser(null, "bob@gmail.com", List.of("ROLE_CLIENT")));
+        when(userService.authenticated()).thenReturn(self);
+
+        assertDoesNotThrow(() -> {
+            service.validateSelfOrAdmin(self.getId());
+        });
+    }
 }
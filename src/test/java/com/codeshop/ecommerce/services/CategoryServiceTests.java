@@ -3,6 +3,8 @@ package com.codeshop.ecommerce.services;
 import com.codeshop.ecommerce.dto.CategoryDTO;
 import com.codeshop.ecommerce.entities.Category;
 import com.codeshop.ecommerce.repositories.CategoryRepository;
+import com.codeshop.ecommerce.services.cache.CategorySnapshot;
+import com.codeshop.ecommerce.services.cache.ProductCaches;
 import com.codeshop.ecommerce.tests.CategoryFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,7 +17,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 public class CategoryServiceTests {
@@ -26,6 +28,9 @@ public class CategoryServiceTests {
     @Mock
     private CategoryRepository repository;
 
+    @Mock
+    private ProductCaches productCaches;
+
     private Category category;
     private List<Category> list;
 
@@ -47,4 +52,34 @@ public class CategoryServiceTests {
         Assertions.assertEquals(result.get(0).getId(), category.getId());
         Assertions.assertEquals(result.get(0).getName(), category.getName());
     }
+
+    @Test
+    public void findAllSnapshotShouldQueryDatabaseOnlyOnceWhileUnchanged() throws Exception {
+        CategorySnapshot first = service.findAllSnapshot();
+        CategorySnapshot second = service.findAllSnapshot();
+
+        Assertions.assertSame(first, second);
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    public void onCategoryChangedShouldRebuildSnapshotWithNewVersion() throws Exception {
+        CategorySnapshot first = service.findAllSnapshot();
+
+        list.add(CategoryFactory.createCategory(3L, "Computadores"));
+        service.onCategoryChanged(category);
+        CategorySnapshot second = service.findAllSnapshot();
+
+        Assertions.assertTrue(second.getVersion() > first.getVersion());
+        Assertions.assertEquals(2, second.getCategories().size());
+        Assertions.assertNotEquals(first.getEtag(), second.getEtag());
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    public void onCategoryChangedShouldInvalidateCachedProducts() throws Exception {
+        service.onCategoryChanged(category);
+
+        verify(productCaches).evictAll();
+    }
 }
@@ -1,11 +1,12 @@
 package com.codeshop.ecommerce.services;
 
+import com.codeshop.ecommerce.dto.ClientDTO;
 import com.codeshop.ecommerce.dto.OrderDTO;
+import com.codeshop.ecommerce.dto.OrderItemDTO;
 import com.codeshop.ecommerce.entities.Order;
 import com.codeshop.ecommerce.entities.OrderItem;
 import com.codeshop.ecommerce.entities.Product;
 import com.codeshop.ecommerce.entities.User;
-import com.codeshop.ecommerce.repositories.OrderItemRepository;
 import com.codeshop.ecommerce.repositories.OrderRepository;
 import com.codeshop.ecommerce.repositories.ProductRepository;
 import com.codeshop.ecommerce.services.exception.ForbiddenException;
@@ -13,7 +14,6 @@ import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
 import com.codeshop.ecommerce.tests.OrderFactory;
 import com.codeshop.ecommerce.tests.ProductFactory;
 import com.codeshop.ecommerce.tests.UserFactory;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,7 +22,7 @@ import org.mockito.Mock;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,9 +44,6 @@ public class OrderServiceTests {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private OrderItemRepository orderItemRepository;
-
     @Mock
     private UserService userService;
 
@@ -72,14 +69,13 @@ public class OrderServiceTests {
         orderDTO = new OrderDTO();
         product = ProductFactory.createProduct();
 
-        when(repository.findById(existingOrderId)).thenReturn(Optional.of(order));
-        when(repository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        when(repository.searchById(existingOrderId)).thenReturn(Optional.of(order));
+        when(repository.searchById(nonExistingOrderId)).thenReturn(Optional.empty());
 
-        when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-        when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+        when(productRepository.findAllById(List.of(existingProductId))).thenReturn(List.of(product));
+        when(productRepository.findAllById(List.of(nonExistingProductId))).thenReturn(List.of());
 
         when(repository.save(any())).thenReturn(order);
-        when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
     }
 
     @Test
@@ -120,7 +116,7 @@ public class OrderServiceTests {
 
     @Test
     public void insertShouldReturnOrderDTOWhenAdminLogged() {
-        when(userService.authenticated()).thenReturn(admin);
+        when(userService.authenticatedReference()).thenReturn(admin);
         OrderDTO result = service.insert(orderDTO);
 
         assertNotNull(result);
@@ -128,15 +124,26 @@ public class OrderServiceTests {
 
     @Test
     public void insertShouldReturnOrderDTOWhenClientLogged() {
-        when(userService.authenticated()).thenReturn(admin);
+        when(userService.authenticatedReference()).thenReturn(admin);
         OrderDTO result = service.insert(orderDTO);
 
         assertNotNull(result);
     }
 
+    @Test
+    public void insertShouldReturnClientFromAuthenticatedClient() {
+        ClientDTO clientDTO = new ClientDTO(client.getId(), client.getName());
+        when(userService.authenticatedReference()).thenReturn(client);
+        when(userService.authenticatedClient(client)).thenReturn(clientDTO);
+
+        OrderDTO result = service.insert(orderDTO);
+
+        assertSame(clientDTO, result.getClient());
+    }
+
     @Test
     public void insertShouldThrowsUsernameNotFoundExceptionWhenUserNotLogged() {
-        doThrow(UsernameNotFoundException.class).when(userService).authenticated();
+        doThrow(UsernameNotFoundException.class).when(userService).authenticatedReference();
 
         order.setClient(new User());
         orderDTO = new OrderDTO(order);
@@ -147,17 +154,34 @@ public class OrderServiceTests {
     }
 
     @Test
-    public void insertShouldThrowsEntityNotFoundExceptionWhenOrderProductIdDoesNotExists() {
-        when(userService.authenticated()).thenReturn(admin);
+    public void insertShouldThrowsResourceNotFoundExceptionWhenOrderProductIdDoesNotExists() {
+        when(userService.authenticatedReference()).thenReturn(admin);
 
-        product.setId(nonExistingOrderId);
+        order.getItems().clear();
+        product.setId(nonExistingProductId);
         OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
         order.getItems().add(orderItem);
 
         orderDTO = new OrderDTO(order);
 
-        assertThrows(EntityNotFoundException.class, () -> {
+        assertThrows(ResourceNotFoundException.class, () -> {
             OrderDTO result = service.insert(orderDTO);
         });
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void insertShouldResolveAllProductsInSingleQuery() {
+        when(userService.authenticatedReference()).thenReturn(client);
+
+        OrderItem orderItem = new OrderItem(order, product, 3, 10.0);
+        orderDTO = new OrderDTO(order);
+        orderDTO.getItems().add(new OrderItemDTO(orderItem));
+
+        OrderDTO result = service.insert(orderDTO);
+
+        assertNotNull(result);
+        verify(productRepository, times(1)).findAllById(List.of(existingProductId));
+        verify(productRepository, never()).getReferenceById(any());
     }
 }
@@ -0,0 +1,83 @@
+package com.codeshop.ecommerce.services;
+
+import com.codeshop.ecommerce.services.cache.ProductCaches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCachesTests {
+
+    @InjectMocks
+    private ProductCaches caches;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(ProductCaches.PRODUCTS, ProductCaches.PRODUCT_JSON);
+
+    private long existingProductId;
+    private long otherProductId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingProductId = 1L;
+        otherProductId = 2L;
+    }
+
+    @Test
+    public void getShouldLoadOnlyOnceWhenUnchanged() {
+        caches.get(ProductCaches.PRODUCTS, existingProductId, () -> "v1");
+        String result = caches.get(ProductCaches.PRODUCTS, existingProductId, () -> "v2");
+
+        assertEquals("v1", result);
+    }
+
+    @Test
+    public void evictShouldRemoveEntryFromBothCaches() {
+        caches.get(ProductCaches.PRODUCTS, existingProductId, () -> "v1");
+        caches.get(ProductCaches.PRODUCT_JSON, existingProductId, () -> "json1");
+
+        caches.evict(existingProductId);
+
+        assertNull(cacheManager.getCache(ProductCaches.PRODUCTS).get(existingProductId));
+        assertNull(cacheManager.getCache(ProductCaches.PRODUCT_JSON).get(existingProductId));
+    }
+
+    @Test
+    public void getShouldNotKeepValueWhenProductChangedWhileLoading() {
+        String loaded = caches.get(ProductCaches.PRODUCTS, existingProductId, () -> {
+            caches.evict(existingProductId);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cacheManager.getCache(ProductCaches.PRODUCTS).get(existingProductId));
+        assertEquals("v2", caches.get(ProductCaches.PRODUCTS, existingProductId, () -> "v2"));
+    }
+
+    @Test
+    public void getShouldNotKeepValueWhenAllProductsChangedWhileLoading() {
+        caches.get(ProductCaches.PRODUCT_JSON, existingProductId, () -> {
+            caches.evictAll();
+            return "stale";
+        });
+
+        assertNull(cacheManager.getCache(ProductCaches.PRODUCT_JSON).get(existingProductId));
+    }
+
+    @Test
+    public void getShouldKeepValueWhenAnotherProductChangedWhileLoading() {
+        caches.get(ProductCaches.PRODUCTS, existingProductId, () -> {
+            caches.evict(otherProductId);
+            return "v1";
+        });
+
+        assertNotNull(cacheManager.getCache(ProductCaches.PRODUCTS).get(existingProductId));
+    }
+}
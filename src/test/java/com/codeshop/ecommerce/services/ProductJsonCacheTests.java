@@ -0,0 +1,84 @@
+package com.codeshop.ecommerce.services;
+
+import com.codeshop.ecommerce.dto.ProductDTO;
+import com.codeshop.ecommerce.services.cache.ProductCaches;
+import com.codeshop.ecommerce.services.cache.ProductJson;
+import com.codeshop.ecommerce.services.cache.ProductJsonCache;
+import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
+import com.codeshop.ecommerce.tests.ProductFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class ProductJsonCacheTests {
+
+    @InjectMocks
+    private ProductJsonCache cache;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductCaches caches;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private long existingProductId;
+    private long nonExistingProductId;
+    private ProductDTO productDTO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingProductId = 1L;
+        nonExistingProductId = 2L;
+        productDTO = ProductFactory.createProductDTO();
+
+        when(caches.get(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(2, Supplier.class).get());
+        when(productService.findById(existingProductId)).thenReturn(productDTO);
+        when(productService.findById(nonExistingProductId)).thenThrow(ResourceNotFoundException.class);
+    }
+
+    @Test
+    public void findByIdShouldReturnEncodedJsonWithoutGzipWhenBelowMinSize() throws Exception {
+        ReflectionTestUtils.setField(cache, "gzipMinSize", 1024 * 1024);
+
+        ProductJson result = cache.findById(existingProductId);
+
+        assertFalse(result.hasGzip());
+        assertEquals(productDTO.getName(), objectMapper.readTree(result.getJson()).get("name").asText());
+    }
+
+    @Test
+    public void findByIdShouldPrecompressJsonWhenAboveMinSize() throws Exception {
+        ReflectionTestUtils.setField(cache, "gzipMinSize", 0);
+
+        ProductJson result = cache.findById(existingProductId);
+
+        assertTrue(result.hasGzip());
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(result.getGzip())).readAllBytes();
+        assertArrayEquals(result.getJson(), unzipped);
+    }
+
+    @Test
+    public void findByIdShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+        assertThrows(ResourceNotFoundException.class, () -> {
+            cache.findById(nonExistingProductId);
+        });
+    }
+}
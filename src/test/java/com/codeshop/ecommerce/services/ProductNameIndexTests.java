@@ -0,0 +1,88 @@
+package com.codeshop.ecommerce.services;
+
+import com.codeshop.ecommerce.projections.ProductNameProjection;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.index.ProductNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class ProductNameIndexTests {
+
+    @InjectMocks
+    private ProductNameIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(repository.searchAllNames()).thenReturn(List.of(
+                projection(1L, "The Lord of the Rings"),
+                projection(2L, "Smart TV"),
+                projection(3L, "Macbook Pro"),
+                projection(4L, "PC Gamer Pro")));
+        index.rebuild();
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenIndexNotLoaded() {
+        ProductNameIndex empty = new ProductNameIndex();
+        assertTrue(empty.search("Macbook").isEmpty());
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenTermShorterThanTrigram() {
+        assertTrue(index.search("Pr").isEmpty());
+        assertTrue(index.search("").isEmpty());
+    }
+
+    @Test
+    public void searchShouldReturnIdsContainingTermIgnoringCase() {
+        List<Long> result = index.search("pro").get();
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(List.of(3L, 4L)));
+    }
+
+    @Test
+    public void searchShouldNotReturnIdsSharingTrigramsOutOfOrder() {
+        assertTrue(index.search("ProMac").get().isEmpty());
+    }
+
+    @Test
+    public void putShouldReindexRenamedProduct() {
+        index.put(3L, "Macbook Air");
+
+        assertEquals(List.of(4L), index.search("Pro").get());
+        assertEquals(List.of(3L), index.search("Air").get());
+    }
+
+    @Test
+    public void deleteShouldRemoveProductFromIndex() {
+        index.delete(2L);
+        assertTrue(index.search("Smart").get().isEmpty());
+    }
+
+    private static ProductNameProjection projection(Long id, String name) {
+        return new ProductNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -2,11 +2,18 @@ package com.codeshop.ecommerce.services;
 
 import com.codeshop.ecommerce.dto.ProductDTO;
 import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.dto.ProductScrollDTO;
+import com.codeshop.ecommerce.dto.ProductSliceDTO;
 import com.codeshop.ecommerce.entities.Product;
 import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.cache.ProductCaches;
+import com.codeshop.ecommerce.services.cache.ProductCountCache;
 import com.codeshop.ecommerce.services.exception.DataBaseException;
+import com.codeshop.ecommerce.services.exception.InvalidCursorException;
 import com.codeshop.ecommerce.services.exception.ResourceNotFoundException;
+import com.codeshop.ecommerce.services.index.ProductNameIndex;
 import com.codeshop.ecommerce.tests.ProductFactory;
+import com.codeshop.ecommerce.util.ProductCursor;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,17 +21,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -36,12 +48,24 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ProductNameIndex nameIndex;
+
+    @Mock
+    private ProductCountCache countCache;
+
+    @Mock
+    private ProductCaches caches;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private long existingProductId;
     private long nonExistingProductId;
     private long dependentId;
     private Product product;
     private String productName;
-    private PageImpl<Product> page;
+    private PageImpl<ProductMinDTO> page;
     private ProductDTO productDTO;
 
     @BeforeEach
@@ -51,13 +75,18 @@ public class ProductServiceTests {
         dependentId = 3L;
         product = ProductFactory.createProduct();
         productName = "PlayStation 5";
-        page = new PageImpl<>(List.of(product));
+        page = new PageImpl<>(List.of(new ProductMinDTO(product)));
         productDTO = ProductFactory.createProductDTO();
 
+        when(caches.get(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(2, Supplier.class).get());
+
         when(repository.findById(existingProductId)).thenReturn(Optional.of(product));
         when(repository.findById(nonExistingProductId)).thenReturn(Optional.empty());
 
         when(repository.searchByName(any(), (Pageable)any())).thenReturn(page);
+        when(repository.searchByIds(any(), (Pageable)any())).thenReturn(page);
+        when(repository.sliceByName(any(), (Pageable)any())).thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), PageRequest.of(0, 1), true));
+        when(repository.sliceByIds(any(), (Pageable)any())).thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), PageRequest.of(0, 1), false));
 
         when(repository.save(any())).thenReturn(product);
 
@@ -99,6 +128,88 @@ public class ProductServiceTests {
         assertEquals(result.iterator().next().getName(), productName);
     }
 
+    @Test
+    public void findAllShouldUseIndexedIdsWhenIndexCanAnswer() throws Exception {
+        Pageable pageable = PageRequest.of(0, 12);
+        when(nameIndex.search(productName)).thenReturn(Optional.of(List.of(existingProductId)));
+
+        Page<ProductMinDTO> result = service.findAll(productName, pageable);
+
+        assertEquals(1, result.getSize());
+        verify(repository).searchByIds(List.of(existingProductId), pageable);
+        verify(repository, never()).searchByName(any(), any());
+    }
+
+    @Test
+    public void findAllShouldReturnEmptyPageWithoutQueryWhenIndexFindsNothing() throws Exception {
+        Pageable pageable = PageRequest.of(0, 12);
+        when(nameIndex.search(productName)).thenReturn(Optional.of(List.of()));
+
+        Page<ProductMinDTO> result = service.findAll(productName, pageable);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void findAllSliceShouldUseCachedCountWithoutCountQuery() throws Exception {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(countCache.get(productName)).thenReturn(25L);
+
+        ProductSliceDTO result = service.findAllSlice(productName, pageable);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(25L, result.getApproximateTotalElements());
+        verify(repository, never()).searchByName(any(), any());
+        verify(repository, never()).countByName(any());
+    }
+
+    @Test
+    public void findAllSliceShouldReturnExactCountWhenIndexCanAnswer() throws Exception {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(nameIndex.search(productName)).thenReturn(Optional.of(List.of(existingProductId)));
+
+        ProductSliceDTO result = service.findAllSlice(productName, pageable);
+
+        assertFalse(result.isHasNext());
+        assertEquals(1L, result.getApproximateTotalElements());
+        verifyNoInteractions(countCache);
+    }
+
+    @Test
+    public void scrollShouldReturnNextCursorWhenMoreRowsThanSize() throws Exception {
+        Product second = ProductFactory.createProduct("PlayStation 4");
+        second.setId(2L);
+        when(repository.scrollByNameOrderById(eq(""), eq(0L), any(Limit.class))).thenReturn(List.of(new ProductMinDTO(product), new ProductMinDTO(second)));
+
+        ProductScrollDTO result = service.scroll("", null, "id", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(existingProductId, ProductCursor.decode(result.getNextCursor()).getLastId());
+    }
+
+    @Test
+    public void scrollShouldSeekPastCursorSortedByName() throws Exception {
+        ProductMinDTO last = new ProductMinDTO(product);
+        String after = ProductCursor.after("name", last).encode();
+        when(repository.scrollByNameOrderByName(eq(""), eq(productName), eq(existingProductId), any(Limit.class))).thenReturn(List.of());
+
+        ProductScrollDTO result = service.scroll("", after, "id", 12);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void scrollShouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> {
+            service.scroll("", "xpto", "id", 12);
+        });
+    }
+
     @Test
     public void insertShouldReturnProductDTO() throws Exception {
         ProductDTO result = service.insert(productDTO);
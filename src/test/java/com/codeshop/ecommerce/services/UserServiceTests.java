@@ -1,11 +1,13 @@
 package com.codeshop.ecommerce.services;
 
+import com.codeshop.ecommerce.dto.ClientDTO;
 import com.codeshop.ecommerce.dto.UserDTO;
 import com.codeshop.ecommerce.entities.User;
 import com.codeshop.ecommerce.projections.UserDetailsProjection;
 import com.codeshop.ecommerce.repositories.UserRepository;
 import com.codeshop.ecommerce.tests.UserDetailsFactory;
 import com.codeshop.ecommerce.tests.UserFactory;
+import com.codeshop.ecommerce.util.AuthenticatedUser;
 import com.codeshop.ecommerce.util.CustomUserUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +61,7 @@ public class UserServiceTests {
         UserDetails result = service.loadUserByUsername(existingUserName);
         assertNotNull(result);
         assertEquals(result.getUsername(), existingUserName);
+        assertEquals(1L, ((User) result).getId());
     }
 
     @Test
@@ -86,6 +89,58 @@ public class UserServiceTests {
         });
     }
 
+    @Test
+    public void authenticatedReferenceShouldNotQueryUserWhenTokenHasUserId() {
+        when(userUtil.getLoggedUser()).thenReturn(new AuthenticatedUser(1L, existingUserName, List.of("ROLE_CLIENT")));
+        when(repository.getReferenceById(1L)).thenReturn(user);
+
+        User result = service.authenticatedReference();
+
+        assertEquals(user, result);
+        verify(repository, never()).findByEmail(any());
+    }
+
+    @Test
+    public void authenticatedReferenceShouldFindUserByEmailWhenTokenHasNoUserId() {
+        when(userUtil.getLoggedUser()).thenReturn(new AuthenticatedUser(null, existingUserName, List.of("ROLE_CLIENT")));
+        when(userUtil.getLoggedUserName()).thenReturn(existingUserName);
+
+        User result = service.authenticatedReference();
+
+        assertEquals(user, result);
+        verify(repository, never()).getReferenceById(any());
+    }
+
+    @Test
+    public void authenticatedClientShouldUseTokenClaimsWhenTokenHasName() {
+        User reference = mock(User.class);
+        when(userUtil.getLoggedUser()).thenReturn(new AuthenticatedUser(1L, existingUserName, "Maria Brown", List.of("ROLE_CLIENT")));
+
+        ClientDTO result = service.authenticatedClient(reference);
+
+        assertEquals(1L, result.getId());
+        assertEquals("Maria Brown", result.getName());
+        verifyNoInteractions(reference);
+    }
+
+    @Test
+    public void authenticatedClientShouldReadUserWhenTokenHasNoName() {
+        when(userUtil.getLoggedUser()).thenReturn(new AuthenticatedUser(1L, existingUserName, List.of("ROLE_CLIENT")));
+
+        ClientDTO result = service.authenticatedClient(user);
+
+        assertEquals(user.getName(), result.getName());
+    }
+
+    @Test
+    public void authenticatedUserShouldThrowUsernameNotFoundExceptionWhenNotAuthenticated() {
+        doThrow(ClassCastException.class).when(userUtil).getLoggedUser();
+
+        assertThrows(UsernameNotFoundException.class, () -> {
+            service.authenticatedUser();
+        });
+    }
+
     @Test
     public void getMeShouldReturnUserDTOWhenUserAuthenticated() throws Exception {
         UserService spyUserService = spy(service);
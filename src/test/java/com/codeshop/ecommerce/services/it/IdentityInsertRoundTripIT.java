@@ -0,0 +1,24 @@
+package com.codeshop.ecommerce.services.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class IdentityInsertRoundTripIT extends InsertRoundTripBenchmark {
+
+    @Test
+    public void insertOrderShouldBatchItemsWhenIdentityIds() {
+        // client and products lookup, order insert, one batch for the items
+        assertTrue(orderInsertRoundTrips() <= 4);
+    }
+
+    @Test
+    public void saveAllProductsShouldNotBatchWhenIdentityIds() {
+        // IDENTITY needs the generated key of each row, so every product is its own round trip
+        assertTrue(bulkProductInsertRoundTrips() > BULK_PRODUCTS);
+    }
+}
@@ -0,0 +1,92 @@
+package com.codeshop.ecommerce.services.it;
+
+import com.codeshop.ecommerce.dto.OrderDTO;
+import com.codeshop.ecommerce.dto.OrderItemDTO;
+import com.codeshop.ecommerce.entities.Category;
+import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.OrderService;
+import com.codeshop.ecommerce.util.AuthenticatedUser;
+import com.codeshop.ecommerce.util.CustomUserUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the JDBC statements prepared to write an order and a bulk of products. With
+ * batching on, each batch is prepared once, so the count is the number of round trips.
+ */
+public abstract class InsertRoundTripBenchmark {
+
+    protected static final int ORDER_ITEMS = 20;
+    protected static final int BULK_PRODUCTS = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertRoundTripBenchmark.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private CustomUserUtil customUserUtil;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(customUserUtil.getLoggedUser()).thenReturn(new AuthenticatedUser(1L, "maria@gmail.com", "Maria Brown", List.of("ROLE_CLIENT")));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    protected long orderInsertRoundTrips() {
+        OrderDTO dto = new OrderDTO();
+        for (long id = 1; id <= ORDER_ITEMS; id++) {
+            dto.getItems().add(new OrderItemDTO(id, null, null, 1, null));
+        }
+        return measure("order with " + ORDER_ITEMS + " items", () -> orderService.insert(dto));
+    }
+
+    protected long bulkProductInsertRoundTrips() {
+        Category category = entityManager.getReference(Category.class, 1L);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < BULK_PRODUCTS; i++) {
+            Product product = new Product(null, "Product " + i, "Description " + i, 10.0 + i, null);
+            product.getCategories().add(category);
+            products.add(product);
+        }
+        return measure(BULK_PRODUCTS + " products", () -> productRepository.saveAll(products));
+    }
+
+    private long measure(String label, Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        action.run();
+        entityManager.flush();
+
+        long count = statistics.getPrepareStatementCount();
+        logger.info("{}: {} statements for {}", getClass().getSimpleName(), count, label);
+        return count;
+    }
+}
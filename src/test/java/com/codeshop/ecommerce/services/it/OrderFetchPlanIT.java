@@ -0,0 +1,62 @@
+package com.codeshop.ecommerce.services.it;
+
+import com.codeshop.ecommerce.dto.OrderDTO;
+import com.codeshop.ecommerce.entities.Order;
+import com.codeshop.ecommerce.repositories.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class OrderFetchPlanIT {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    public void searchByIdShouldLoadOrderAggregateInSingleStatement() {
+        Order order = repository.searchById(1L).orElseThrow();
+        OrderDTO dto = new OrderDTO(order);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Maria Brown", dto.getClient().getName());
+        assertNotNull(dto.getPayment());
+        assertEquals(2, dto.getItems().size());
+        assertEquals(1431.0, dto.getTotal());
+    }
+
+    @Test
+    public void searchByIdShouldLoadOrderWithoutPaymentInSingleStatement() {
+        Order order = repository.searchById(3L).orElseThrow();
+        OrderDTO dto = new OrderDTO(order);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(dto.getPayment());
+        assertEquals(1, dto.getItems().size());
+    }
+
+    @Test
+    public void searchByIdShouldReturnEmptyWhenIdDoesNotExist() {
+        assertTrue(repository.searchById(1000L).isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package com.codeshop.ecommerce.services.it;
+
+import com.codeshop.ecommerce.dto.ProductMinDTO;
+import com.codeshop.ecommerce.dto.ProductScrollDTO;
+import com.codeshop.ecommerce.dto.ProductSliceDTO;
+import com.codeshop.ecommerce.services.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ProductListingProjectionIT {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    public void findAllShouldNotLoadProductEntities() {
+        Page<ProductMinDTO> result = service.findAll("", PageRequest.of(0, 12, Sort.by("name")));
+
+        assertEquals(25L, result.getTotalElements());
+        assertEquals("Macbook Pro", result.getContent().get(0).getName());
+        assertEquals(0L, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void findAllSliceShouldNotLoadProductEntities() {
+        ProductSliceDTO result = service.findAllSlice("", PageRequest.of(0, 12));
+
+        assertEquals(12, result.getContent().size());
+        assertEquals(0L, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void scrollShouldNotLoadProductEntities() {
+        ProductScrollDTO result = service.scroll("", null, "name", 5);
+
+        assertEquals(5, result.getContent().size());
+        assertEquals(0L, statistics.getEntityLoadCount());
+    }
+}
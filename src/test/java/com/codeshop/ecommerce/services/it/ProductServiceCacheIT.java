@@ -0,0 +1,117 @@
+package com.codeshop.ecommerce.services.it;
+
+import com.codeshop.ecommerce.dto.ProductDTO;
+import com.codeshop.ecommerce.entities.Product;
+import com.codeshop.ecommerce.repositories.ProductRepository;
+import com.codeshop.ecommerce.services.ProductService;
+import com.codeshop.ecommerce.tests.CategoryFactory;
+import com.codeshop.ecommerce.tests.ProductFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class ProductServiceCacheIT {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @MockitoBean
+    private ProductRepository repository;
+
+    private long existingProductId;
+    private Product product;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingProductId = 1L;
+        product = ProductFactory.createProduct();
+
+        cacheManager.getCache("products").clear();
+        cacheManager.getCache("productJson").clear();
+
+        when(repository.findById(existingProductId)).thenReturn(Optional.of(product));
+        when(repository.getReferenceById(existingProductId)).thenReturn(product);
+        when(repository.save(any())).thenReturn(product);
+        when(repository.existsById(existingProductId)).thenReturn(true);
+    }
+
+    @Test
+    public void findByIdShouldHitDatabaseOnlyOnceWhenCalledRepeatedly() {
+        ProductDTO first = service.findById(existingProductId);
+        ProductDTO second = service.findById(existingProductId);
+
+        assertEquals(first.getName(), second.getName());
+        verify(repository, times(1)).findById(existingProductId);
+    }
+
+    @Test
+    public void updateShouldEvictCachedProduct() {
+        service.findById(existingProductId);
+        service.update(existingProductId, ProductFactory.createProductDTO());
+        service.findById(existingProductId);
+
+        verify(repository, times(2)).findById(existingProductId);
+    }
+
+    @Test
+    public void updateShouldEvictPreSerializedJson() {
+        cacheManager.getCache("productJson").put(existingProductId, new byte[0]);
+        service.update(existingProductId, ProductFactory.createProductDTO());
+
+        assertNull(cacheManager.getCache("productJson").get(existingProductId));
+    }
+
+    @Test
+    public void findByIdShouldNotKeepCopyLoadedBeforeConcurrentUpdateCommitted() {
+        Product stale = ProductFactory.createProduct();
+        when(repository.findById(existingProductId)).thenAnswer(invocation -> {
+            // the update commits after this read and before the read stores its result
+            service.update(existingProductId, ProductFactory.createProductDTO());
+            return Optional.of(stale);
+        }).thenReturn(Optional.of(product));
+
+        service.findById(existingProductId);
+        service.findById(existingProductId);
+
+        verify(repository, times(2)).findById(existingProductId);
+    }
+
+    @Test
+    public void deleteShouldEvictCachedProduct() {
+        service.findById(existingProductId);
+        service.delete(existingProductId);
+        service.findById(existingProductId);
+
+        verify(repository, times(2)).findById(existingProductId);
+    }
+
+    @Test
+    public void categoryChangeShouldEvictCachedProductsAndJson() {
+        service.findById(existingProductId);
+        cacheManager.getCache("productJson").put(existingProductId, new byte[0]);
+
+        publisher.publishEvent(CategoryFactory.createCategory());
+        service.findById(existingProductId);
+
+        verify(repository, times(2)).findById(existingProductId);
+        assertNull(cacheManager.getCache("productJson").get(existingProductId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.codeshop.ecommerce.services.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles({"test", "sequence"})
+@Transactional
+public class SequenceInsertRoundTripIT extends InsertRoundTripBenchmark {
+
+    @Test
+    public void insertOrderShouldBatchItemsWhenSequenceIds() {
+        // client and products lookup, sequence call, order insert, one batch for the items
+        assertTrue(orderInsertRoundTrips() <= 5);
+    }
+
+    @Test
+    public void saveAllProductsShouldBatchWhenSequenceIds() {
+        // one sequence call and one batch per 50 products, plus the category links
+        assertTrue(bulkProductInsertRoundTrips() <= 2 * BULK_PRODUCTS / 50 + 2);
+    }
+}
@@ -0,0 +1,121 @@
+package com.codeshop.ecommerce.services.it;
+
+import com.codeshop.ecommerce.entities.Role;
+import com.codeshop.ecommerce.entities.User;
+import com.codeshop.ecommerce.repositories.UserRepository;
+import com.codeshop.ecommerce.services.UserService;
+import com.codeshop.ecommerce.tests.UserDetailsFactory;
+import com.codeshop.ecommerce.tests.UserFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class UserServiceCacheIT {
+
+    @Autowired
+    private UserService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private UserRepository repository;
+
+    private String existingUserName;
+    private Long existingUserId, adminRoleId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingUserName = "maria@gmail.com";
+        existingUserId = 1L;
+        adminRoleId = 2L;
+
+        cacheManager.getCache("userDetails").clear();
+
+        when(repository.searchUserAndRolesByEmail(existingUserName)).thenReturn(UserDetailsFactory.createCustomClientUser(existingUserName));
+    }
+
+    // The context is shared with other tests, so the seed user gets its roles back even when a test fails
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(User.class, existingUserId).getRoles().removeIf(role -> role.getId().equals(adminRoleId)));
+    }
+
+    @Test
+    public void loadUserByUsernameShouldHitDatabaseOnlyOnceWhenCalledRepeatedly() {
+        UserDetails first = service.loadUserByUsername(existingUserName);
+        UserDetails second = service.loadUserByUsername(existingUserName);
+
+        assertEquals(first.getUsername(), second.getUsername());
+        verify(repository, times(1)).searchUserAndRolesByEmail(existingUserName);
+    }
+
+    @Test
+    public void userChangeShouldEvictCachedUserDetails() {
+        service.loadUserByUsername(existingUserName);
+
+        publisher.publishEvent(UserFactory.createClientUser());
+        service.loadUserByUsername(existingUserName);
+
+        verify(repository, times(2)).searchUserAndRolesByEmail(existingUserName);
+    }
+
+    @Test
+    public void roleChangeShouldEvictCachedUserDetails() {
+        service.loadUserByUsername(existingUserName);
+
+        publisher.publishEvent(new Role(1L, "ROLE_CLIENT"));
+        service.loadUserByUsername(existingUserName);
+
+        verify(repository, times(2)).searchUserAndRolesByEmail(existingUserName);
+    }
+
+    @Test
+    public void rolesCollectionChangeShouldEvictCachedUserDetails() {
+        service.loadUserByUsername(existingUserName);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = entityManager.find(User.class, existingUserId);
+            user.addRole(entityManager.find(Role.class, adminRoleId));
+        });
+        service.loadUserByUsername(existingUserName);
+
+        verify(repository, times(2)).searchUserAndRolesByEmail(existingUserName);
+    }
+
+    @Test
+    public void userChangeShouldNotEvictCachedUserDetailsWhenTransactionRollsBack() {
+        service.loadUserByUsername(existingUserName);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publisher.publishEvent(new User());
+            status.setRollbackOnly();
+        });
+        service.loadUserByUsername(existingUserName);
+
+        verify(repository, times(1)).searchUserAndRolesByEmail(existingUserName);
+    }
+}